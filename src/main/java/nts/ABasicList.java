@@ -1,20 +1,29 @@
 package nts;
 
+import java.util.Objects;
+
 /**
- * A very simple AList implementation, using recursion.
- * As the stack is limited, the list size is also quite limited.
+ * A very simple AList implementation, relying on the default methods of AList.
+ * The size is known when the tail is an ABasicList, otherwise it is counted the first time it is needed.
  *
  * @param <T> The element type.
  */
 public class ABasicList<T> implements AList<T> {
+    private static final long UNKNOWN = -1;
+
     private final T head;
-    private final AList<T> tail;
-    private final long size;
+    private AList<T> tail; //only changed by the ALinkedList builder, before the list is returned
+    private volatile long size;
 
     public ABasicList(T head, AList<T> tail) {
         this.head = head;
         this.tail = tail;
-        this.size = tail.size() + 1;
+        if (tail instanceof ABasicList) {
+            long tailSize = ((ABasicList) tail).size;
+            this.size = tailSize == UNKNOWN ? UNKNOWN : tailSize + 1;
+        } else {
+            this.size = tail.isEmpty() ? 1 : UNKNOWN;
+        }
     }
 
     @Override
@@ -27,11 +36,63 @@ public class ABasicList<T> implements AList<T> {
         return tail;
     }
 
+    /**
+     * If the size is not known, the nodes are counted until one with a known size, or a tail of another type is found.
+     * The size is then stored in all the counted nodes.
+     *
+     * @return The size of this list.
+     */
     @Override
     public long size() {
+        long size = this.size;
+        if (size != UNKNOWN) return size;
+        long count = 0;
+        AList<T> list = this;
+        while (list instanceof ABasicList && ((ABasicList) list).size == UNKNOWN) {
+            count++;
+            list = list.tail();
+        }
+        size = count + list.size();
+        long remaining = size;
+        for (AList<T> node = this; node != list; node = node.tail()) {
+            ((ABasicList) node).size = remaining--;
+        }
         return size;
     }
 
+    /**
+     * Append a node to a list that is being built. This node must be the last node of the list, and the list must not
+     * be visible to other code yet. The size of this node becomes unknown, and it is counted when first needed.
+     *
+     * @param next The new last node.
+     */
+    void link(ABasicList<T> next) {
+        this.tail = next;
+        this.size = UNKNOWN;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return AList.contentEquals(this, other);
+    }
+
+    /**
+     * The hash code is not kept, so the nodes stay small. The nodes are hashed up to the first tail of another type,
+     * which may have kept its hash code, and the hash codes are then combined.
+     *
+     * @return The hash code of the elements.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        AList<T> list = this;
+        while (list instanceof ABasicList) {
+            hash = 31 * hash + Objects.hashCode(list.head());
+            list = list.tail();
+        }
+        return list.isEmpty() ? hash : AList.concatHash(hash, list.hashCode(), list.size());
+    }
+
     @Override
     public String toString() {
         return asString();
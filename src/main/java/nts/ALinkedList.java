@@ -1,13 +1,16 @@
 package nts;
 
-import java.util.function.BiFunction;
-import java.util.function.Function;
-import java.util.function.Predicate;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Extends ABasicList to provide a more useful AList implementation, by replacing recursive method implementations
- * with iteration. This makes the filter and map operations slower, as they have to reverse the result, but removes
- * the limit on the size.
+ * with iteration. This removes the limit on the size.
+ * <br/>
+ * The filter and map operations build the result in a single pass, appending nodes to the end of the new list
+ * (see {@link #builder()}). To do that, the tail of the last node is changed while the list is being built, and the
+ * sizes are counted when first needed. The result is not visible to other code before it is complete and is never
+ * changed afterwards, so the list is still effectively immutable.
  *
  * @param <T> The element type
  */
@@ -18,40 +21,20 @@ public class ALinkedList<T> extends ABasicList<T> {
     }
 
     @Override
-    public AList<T> filter(Predicate<? super T> predicate) {
+    public AList<T> limit(long maxSize) {
+        if (maxSize >= size()) return this;
+        AList.Builder<T> result = builder();
         AList<T> list = this;
-        AList<T> result = AList.empty();
-        while (!list.isEmpty()) {
-            T head = list.head();
-            if (predicate.test(head)) {
-                result = factory().create(head, result);
-            }
+        for (long i = 0; i < maxSize; i++) {
+            result.add(list.head());
             list = list.tail();
         }
-        return result.reverse();
+        return result.build();
     }
 
     @Override
-    public <R> AList<R> map(Function<? super T, ? extends R> function) {
-        AList<T> list = this;
-        AList<R> result = AList.empty();
-        while (!list.isEmpty()) {
-            R mapped = function.apply(list.head());
-            result = factory().create(mapped, result);
-            list = list.tail();
-        }
-        return result.reverse();
-    }
-
-    @Override
-    public <A> A foldLeft(A initial, BiFunction<? super A, ? super T, ? extends A> function) {
-        A accumulator = initial;
-        AList<T> list = this;
-        while (!list.isEmpty()) {
-            accumulator = function.apply(accumulator, list.head());
-            list = list.tail();
-        }
-        return accumulator;
+    public <R> AList.Builder<R> builder() {
+        return new Builder<>();
     }
 
     @Override
@@ -68,4 +51,37 @@ public class ALinkedList<T> extends ABasicList<T> {
         }
         return list;
     }
+
+    /**
+     * Builds a list from the first element to the last, by linking each new node after the last one.
+     *
+     * @param <T> The element type.
+     */
+    private static final class Builder<T> implements AList.Builder<T> {
+        private ALinkedList<T> first;
+        private ALinkedList<T> last;
+
+        @Override
+        public Builder<T> add(T element) {
+            ALinkedList<T> node = new ALinkedList<>(element, AList.empty());
+            if (last == null) {
+                first = node;
+            } else {
+                last.link(node);
+            }
+            last = node;
+            return this;
+        }
+
+        /**
+         * The builder starts a new list afterwards, so the returned list is never changed.
+         */
+        @Override
+        public AList<T> build() {
+            AList<T> list = first == null ? AList.empty() : first;
+            first = null;
+            last = null;
+            return list;
+        }
+    }
 }
@@ -1,8 +1,21 @@
 package nts;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * Generic immutable list interface.
@@ -11,8 +24,14 @@ import java.util.function.Predicate;
  * a head element and a tail list.
  * Also provides the empty list implementation.
  *
- * Using those operations and the empty list allows us to recursively define a set of other functions - map, filter,
- * foldLeft, reverse and size.
+ * Using those operations and the empty list allows us to define a set of other functions - map, filter,
+ * foldLeft, reverse and size. The default implementations iterate over the list instead of using recursion, so they
+ * work for any size. Lists are built with the {@link Builder} from {@link #builder()}, which uses the factory unless
+ * it is overridden.
+ * <br/>
+ * Lists are equal if they have the same elements in the same order, whatever the implementation, and their hash code
+ * is the hash code of a java.util.List with the same elements. As interfaces can't define equals and hashCode,
+ * the implementations use {@link #contentEquals(AList, Object)} and {@link #contentHash(AList)}, or faster versions.
  *
  * @param <T> the type of elements
  */
@@ -54,7 +73,7 @@ public interface AList<T> {
      * @return AList of matching elements.
      */
     default AList<T> filter(Predicate<? super T> predicate){
-        return predicate.test(head()) ? factory().create(head(), tail().filter(predicate)) : tail().filter(predicate);
+        return foldLeft(this.<T>builder(), (builder, x) -> predicate.test(x) ? builder.add(x) : builder).build();
     }
 
     /**
@@ -65,7 +84,18 @@ public interface AList<T> {
      * @return A list of the mapped elements, in the same order.
      */
     default <R> AList<R> map(Function<? super T, ? extends R> function) {
-        return factory().create(function.apply(head()), tail().map(function));
+        return foldLeft(this.<R>builder(), (builder, x) -> builder.add(function.apply(x))).build();
+    }
+
+    /**
+     * Get a list of the elements of all the lists, created by applying a function to each element of this list.
+     *
+     * @param function A function from an element of this list to a list of elements of the new list.
+     * @param <R> The result type.
+     * @return A list of the elements of the mapped lists, in the same order.
+     */
+    default <R> AList<R> flatMap(Function<? super T, ? extends AList<R>> function) {
+        return foldLeft(this.<R>builder(), (builder, x) -> function.apply(x).foldLeft(builder, Builder::add)).build();
     }
 
     /**
@@ -81,7 +111,218 @@ public interface AList<T> {
      * @return The accumulated value, after applying the function to all elements.
      */
     default <A> A foldLeft(A initial, BiFunction<? super A, ? super T, ? extends A> function) {
-        return tail().foldLeft(function.apply(initial, head()), function);
+        A accumulator = initial;
+        for (AList<T> list = this; !list.isEmpty(); list = list.tail()) {
+            accumulator = function.apply(accumulator, list.head());
+        }
+        return accumulator;
+    }
+
+    /**
+     * Get the list of all the intermediate values of a foldLeft, starting with the initial value.
+     * The list has one element more than this list, the last element is the result of the foldLeft.
+     *
+     * @param initial The initial value of the accumulator.
+     * @param function A function accepting the current accumulator value and list element,
+     *                 returning the next value of the accumulator.
+     * @param <A> The type of the accumulated value.
+     * @return A list of the accumulator values.
+     */
+    default <A> AList<A> scanLeft(A initial, BiFunction<? super A, ? super T, ? extends A> function) {
+        Builder<A> builder = this.<A>builder().add(initial);
+        foldLeft(initial, (a, x) -> {
+            A next = function.apply(a, x);
+            builder.add(next);
+            return next;
+        });
+        return builder.build();
+    }
+
+    /**
+     * Like {@link #scanLeft(Object, BiFunction)}, for an associative operator. As the elements can be grouped in any
+     * way, implementations are free to compute the result in parallel, e.g. by first reducing parts of the list and
+     * then scanning each part starting from the reduced values of the parts before it.
+     *
+     * @param initial The first value of the result, it does not need to be an identity for the operator.
+     * @param operator An associative operator.
+     * @return A list of the accumulator values.
+     */
+    default AList<T> prefixScan(T initial, BinaryOperator<T> operator) {
+        return scanLeft(initial, operator);
+    }
+
+    /**
+     * Like {@link #foldLeft(Object, BiFunction)}, but stops as soon as the accumulator does not match the condition.
+     * The condition is tested before each element is folded, the remaining elements are not visited.
+     *
+     * @param initial The initial value of the accumulator.
+     * @param function A function accepting the current accumulator value and list element,
+     *                 returning the next value of the accumulator.
+     * @param condition The folding continues while the accumulator matches this predicate.
+     * @param <A> The type of the accumulated value.
+     * @return The accumulated value, after the last element is folded or the condition is no longer met.
+     */
+    default <A> A foldLeftWhile(A initial, BiFunction<? super A, ? super T, ? extends A> function,
+                                Predicate<? super A> condition) {
+        A accumulator = initial;
+        for (AList<T> list = this; !list.isEmpty() && condition.test(accumulator); list = list.tail()) {
+            accumulator = function.apply(accumulator, list.head());
+        }
+        return accumulator;
+    }
+
+    /**
+     * @param predicate Function to test each element.
+     * @return The index of the first element matching the predicate, -1 if there is none.
+     */
+    default long indexOf(Predicate<? super T> predicate) {
+        long index = 0;
+        for (AList<T> list = this; !list.isEmpty(); list = list.tail()) {
+            if (predicate.test(list.head())) return index;
+            index++;
+        }
+        return -1;
+    }
+
+    /**
+     * Get the first element matching the predicate. No elements after it are tested.
+     *
+     * @param predicate Function to test each element.
+     * @return The first matching element, or an empty Optional if there is none.
+     * @throws NullPointerException If the element found is null.
+     */
+    default Optional<T> find(Predicate<? super T> predicate) {
+        for (AList<T> list = this; !list.isEmpty(); list = list.tail()) {
+            if (predicate.test(list.head())) return Optional.of(list.head());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Get any element matching the predicate. Unlike {@link #find(Predicate)}, implementations are free to search
+     * in parallel and return whichever match is found first.
+     *
+     * @param predicate Function to test each element.
+     * @return A matching element, or an empty Optional if there is none.
+     * @throws NullPointerException If the element found is null.
+     */
+    default Optional<T> findAny(Predicate<? super T> predicate) {
+        return find(predicate);
+    }
+
+    /**
+     * @param predicate Function to test each element.
+     * @return <code>true</code> if any element matches the predicate, the search stops at the first match.
+     */
+    default boolean anyMatch(Predicate<? super T> predicate) {
+        return indexOf(predicate) >= 0;
+    }
+
+    /**
+     * @param predicate Function to test each element.
+     * @return <code>true</code> if all the elements match the predicate (or the list is empty),
+     * the search stops at the first element that does not match.
+     */
+    default boolean allMatch(Predicate<? super T> predicate) {
+        return !anyMatch(x -> !predicate.test(x));
+    }
+
+    /**
+     * @param predicate Function to test each element.
+     * @return A list of the elements before the first one that does not match the predicate.
+     */
+    default AList<T> takeWhile(Predicate<? super T> predicate) {
+        Builder<T> builder = builder();
+        for (AList<T> list = this; !list.isEmpty() && predicate.test(list.head()); list = list.tail()) {
+            builder.add(list.head());
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param predicate Function to test each element.
+     * @return A list of the elements starting with the first one that does not match the predicate.
+     */
+    default AList<T> dropWhile(Predicate<? super T> predicate) {
+        AList<T> list = this;
+        while (!list.isEmpty() && predicate.test(list.head())) {
+            list = list.tail();
+        }
+        return list;
+    }
+
+    /**
+     * @param maxSize The maximum number of elements.
+     * @return A list of the first <code>maxSize</code> elements, or all elements if this list is not bigger.
+     */
+    default AList<T> limit(long maxSize) {
+        Builder<T> builder = builder();
+        AList<T> list = this;
+        for (long i = 0; i < maxSize && !list.isEmpty(); i++) {
+            builder.add(list.head());
+            list = list.tail();
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return A list of the elements in this list without duplicates, keeping the first of equal elements.
+     */
+    default AList<T> distinct() {
+        Set<T> seen = new HashSet<>();
+        return foldLeft(this.<T>builder(), (builder, x) -> seen.add(x) ? builder.add(x) : builder).build();
+    }
+
+    /**
+     * @param key Function to get the key of each element.
+     * @param <K> The type of the key.
+     * @return The lists of elements with equal keys, preserving the order. The keys are in the order of their first
+     * element.
+     */
+    default <K> Map<K, AList<T>> groupBy(Function<? super T, ? extends K> key) {
+        Map<K, Builder<T>> groups = foldLeft(new LinkedHashMap<K, Builder<T>>(), (map, x) -> {
+            map.computeIfAbsent(key.apply(x), k -> builder()).add(x);
+            return map;
+        });
+        Map<K, AList<T>> result = new LinkedHashMap<>();
+        groups.forEach((k, builder) -> result.put(k, builder.build()));
+        return result;
+    }
+
+    /**
+     * @param key Function to get the key of each element.
+     * @param <K> The type of the key.
+     * @return The number of elements with equal keys. The keys are in the order of their first element.
+     */
+    default <K> Map<K, Long> countBy(Function<? super T, ? extends K> key) {
+        return foldLeft(new LinkedHashMap<K, Long>(), (map, x) -> {
+            map.merge(key.apply(x), 1L, Long::sum);
+            return map;
+        });
+    }
+
+    /**
+     * Split the list in a single pass.
+     *
+     * @param predicate Function to test each element.
+     * @return The list of matching elements under <code>true</code> and the rest under <code>false</code>,
+     * preserving the order. Both keys are always present, the lists can be empty.
+     */
+    default Map<Boolean, AList<T>> partition(Predicate<? super T> predicate) {
+        Builder<T> matching = builder();
+        Builder<T> rest = builder();
+        foldLeft(matching, (m, x) -> {
+            if (predicate.test(x)) {
+                m.add(x);
+            } else {
+                rest.add(x);
+            }
+            return m;
+        });
+        Map<Boolean, AList<T>> result = new HashMap<>();
+        result.put(true, matching.build());
+        result.put(false, rest.build());
+        return result;
     }
 
     /**
@@ -103,7 +344,49 @@ public interface AList<T> {
      * @return The size of this list.
      */
     default long size() {
-        return foldLeft(0, (count, e) -> count++);
+        return foldLeft(0L, (count, e) -> count + 1);
+    }
+
+    /**
+     * Get a read-only view of this list as a java.util.List. The elements are not copied.
+     * Lists bigger than <code>Integer.MAX_VALUE</code> report that as their size and the rest of the elements can't be
+     * accessed by index. The default view has to walk the list to get an element by index, implementations with
+     * faster access should override it.
+     *
+     * @return An unmodifiable java.util.List of the elements.
+     */
+    default List<T> asJavaList() {
+        return new JavaListView<>(this);
+    }
+
+    /**
+     * Provides a way to create instances of this list by adding the elements from first to last.
+     * The default builder collects the elements and then creates the list with the {@link #factory()}, starting from
+     * the last element. Implementations can override it to build the list directly.
+     *
+     * @param <R> The type of the elements.
+     * @return A new builder, creating the same kind of list as this one.
+     */
+    default <R> Builder<R> builder() {
+        Factory factory = factory();
+        return new Builder<R>() {
+            private final List<R> elements = new ArrayList<>();
+
+            @Override
+            public Builder<R> add(R element) {
+                elements.add(element);
+                return this;
+            }
+
+            @Override
+            public AList<R> build() {
+                AList<R> list = empty();
+                for (int i = elements.size(); i-- > 0; ) {
+                    list = factory.create(elements.get(i), list);
+                }
+                return list;
+            }
+        };
     }
 
     /**
@@ -117,6 +400,73 @@ public interface AList<T> {
         return EMPTY;
     }
 
+    /**
+     * The other list is read with the iterator of its java.util.List view, unless it has more elements than the view
+     * can hold, in which case it is walked with tail().
+     *
+     * @param list A list.
+     * @param other Any object.
+     * @return True if the object is an AList with the same elements as the list, in the same order.
+     */
+    static boolean contentEquals(AList<?> list, Object other) {
+        if (list == other) return true;
+        if (!(other instanceof AList)) return false;
+        AList<?> otherList = (AList<?>) other;
+        if (list.size() != otherList.size()) return false;
+        if (otherList.size() <= Integer.MAX_VALUE) {
+            Iterator<?> others = otherList.asJavaList().iterator();
+            return list.foldLeftWhile(true, (equal, x) -> Objects.equals(x, others.next()), equal -> equal);
+        }
+        AList<?>[] others = {otherList};
+        return list.foldLeftWhile(true, (equal, x) -> {
+            AList<?> rest = others[0];
+            others[0] = rest.tail();
+            return Objects.equals(x, rest.head());
+        }, equal -> equal);
+    }
+
+    /**
+     * @param list A list.
+     * @return The hash code of the list, as defined by {@link List#hashCode()}.
+     */
+    static int contentHash(AList<?> list) {
+        return list.foldLeft(1, (hash, x) -> 31 * hash + Objects.hashCode(x));
+    }
+
+    /**
+     * Get the hash code of consecutive parts of a list from the hash codes of the parts, so they can be computed
+     * independently (and cached by the parts).
+     *
+     * @param parts The parts of a list, in order. The stream may be parallel.
+     * @return The hash code of the list made of the parts.
+     */
+    static int contentHash(Stream<? extends AList<?>> parts) {
+        long[] hashAndSize = parts.map(part -> new long[]{part.hashCode(), part.size()})
+                                  .reduce(new long[]{1, 0}, (first, second) -> new long[]{
+                                          concatHash((int) first[0], (int) second[0], second[1]), first[1] + second[1]});
+        return (int) hashAndSize[0];
+    }
+
+    /**
+     * The hash code of a list is 31<sup>size</sup> plus the sum of each element's hash code times 31<sup>k</sup>,
+     * where k is the number of elements after it, so the hash code of two lists joined together is
+     * hash * 31<sup>otherSize</sup> + otherHash - 31<sup>otherSize</sup>.
+     *
+     * @param hash The hash code of the first list.
+     * @param otherHash The hash code of the list after it.
+     * @param otherSize The size of the list after it.
+     * @return The hash code of the elements of both lists.
+     */
+    static int concatHash(int hash, int otherHash, long otherSize) {
+        int power = 1;
+        int base = 31;
+        for (long exponent = otherSize; exponent > 0; exponent >>= 1) {
+            if ((exponent & 1) != 0) power *= base;
+            base *= base;
+        }
+        return hash * power + otherHash - power;
+    }
+
     /**
      * The empty list instance. Implementations of AList should always use it to represent an empty list.
      */
@@ -167,11 +517,51 @@ public interface AList<T> {
             return this;
         }
 
+        @Override
+        public AList flatMap(Function function) {
+            return this;
+        }
+
+        @Override
+        public AList scanLeft(Object initial, BiFunction function) {
+            return AnArrayList.create(initial, AList.empty());
+        }
+
+        @Override
+        public AList prefixScan(Object initial, BinaryOperator operator) {
+            return AnArrayList.create(initial, AList.empty());
+        }
+
+        @Override
+        public List asJavaList() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public AList takeWhile(Predicate predicate) {
+            return this;
+        }
+
+        @Override
+        public AList limit(long maxSize) {
+            return this;
+        }
+
         @Override
         public Object foldLeft(Object initial, BiFunction function) {
             return initial;
         }
 
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof AList && ((AList) other).isEmpty();
+        }
+
+        @Override
+        public int hashCode() {
+            return 1;
+        }
+
         @Override
         public String toString() {
             return asString();
@@ -187,6 +577,26 @@ public interface AList<T> {
         }
     }
 
+    /**
+     * Builds a list by adding elements to the end.
+     * A builder is used to build a single list, it should not be used after {@link #build()} is called.
+     *
+     * @param <T> The type of the elements.
+     */
+    interface Builder<T> {
+        /**
+         * @param element The element to add after the elements already added.
+         * @return This builder.
+         * @throws AList.CreationFailed If the element can't be added to the list.
+         */
+        Builder<T> add(T element) throws AList.CreationFailed;
+
+        /**
+         * @return A list of the added elements, in the order they were added, the empty list if there were none.
+         */
+        AList<T> build();
+    }
+
     /**
      * AList creation factory.
      */
@@ -1,53 +1,81 @@
 package nts;
 
+import java.lang.reflect.Array;
+import java.util.AbstractList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.RandomAccess;
+import java.util.Spliterator;
 import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
  * As the name suggests, this is AList implementation that uses an array to hold the elements.
  * It is still effectively immutable, as the array is not exposed.
- * Unlike java.util.ArrayList, it does not provide an operation to get an element by index. The only extension to the
- * AList interface is a method to get a parallel version of this list, which uses the default fork/join pool to execute
- * map and filter concurrently, as they don't depend on the order of invocation.
+ * Unlike java.util.ArrayList, it does not provide an operation to get an element by index, but the
+ * {@link #asJavaList()} view does, reading the element directly from the array. The extensions to the
+ * AList interface are a method to get a version of this list with an {@link ExecutionPolicy}, which decides for each
+ * call whether map, filter and the other operations that don't depend on the order of invocation run concurrently
+ * (and in which fork/join pool), and methods to get a copy of the list with elements set, inserted or removed at an
+ * index. Lists derived from a list (tail, reverse, map, filter...) have the same policy.
  * The reverse operation does not actually reverse the elements in the array, it just switches the logical order.
  * The size is limited to the {@link #MAX_SIZE}.
+ * <br/>
+ * A list can also be made from an array owned by the caller without copying it (see {@link #wrap(Object[])}).
+ * Such an array has no free slots and holds null elements as they are, so adding an element in front of a wrapped list
+ * always copies its elements into a new array.
  *
  * @param <T>
  */
 @SuppressWarnings("unchecked")
-public class AnArrayList<T> implements AList<T> {
+public class AnArrayList<T> implements AList<T>, HasStats<T> {
 
     public static final int MAX_SIZE = 1 << 24;
 
-    private final boolean parallel;
+    private final ExecutionPolicy policy;
     private final Object[] elements;
     private final int headIndex; //inclusive
     private final int endIndex; //exclusive, last element is elements[endIndex - 1]
     private final boolean reversed;
+    private final boolean wrapped; //the array is owned by the caller, null is a null element and not a free slot
+    private volatile ChunkStats<T> stats; //computed when first needed
+    private volatile int hash; //0 until computed
 
-    private AnArrayList(Object[] elements, boolean reversed, boolean parallel) {
-        this(elements, 0, elements.length, reversed, parallel);
+    private AnArrayList(Object[] elements, boolean reversed, ExecutionPolicy policy) {
+        this(elements, 0, elements.length, reversed, policy);
     }
 
-    private AnArrayList(Object[] elements, int headIndex, int endIndex, boolean reversed, boolean parallel) {
+    private AnArrayList(Object[] elements, int headIndex, int endIndex, boolean reversed, ExecutionPolicy policy) {
+        this(elements, headIndex, endIndex, reversed, policy, false);
+    }
+
+    private AnArrayList(Object[] elements, int headIndex, int endIndex, boolean reversed, ExecutionPolicy policy,
+                        boolean wrapped) {
         assert headIndex >= 0;
         assert endIndex <= elements.length;
 
-        if (elements.length > MAX_SIZE) throw new AList.CreationFailed("Too big");
+        if ((wrapped ? endIndex - headIndex : elements.length) > MAX_SIZE) throw new AList.CreationFailed("Too big");
         this.elements = elements;
         this.headIndex = headIndex;
         this.endIndex = endIndex;
         this.reversed = reversed;
-        this.parallel = parallel;
+        this.policy = policy;
+        this.wrapped = wrapped;
     }
 
     @Override
     public T head() {
-        int index = reversed ? endIndex - 1 : headIndex;
-        return (T) nullOut(elements[index]);
+        return element(reversed ? endIndex - 1 : headIndex);
     }
 
     /**
@@ -61,25 +89,53 @@ public class AnArrayList<T> implements AList<T> {
     public AList<T> tail() {
         if (headIndex + 1 == endIndex) return AList.empty();
         if (reversed) {
-            return new AnArrayList<>(elements, headIndex, endIndex - 1, true, parallel);
+            return new AnArrayList<>(elements, headIndex, endIndex - 1, true, policy, wrapped);
         }
-        return new AnArrayList<>(elements, headIndex + 1, endIndex, false, parallel);
+        return new AnArrayList<>(elements, headIndex + 1, endIndex, false, policy, wrapped);
     }
 
     @Override
     public AnArrayList<T> reverse() {
-        return new AnArrayList<>(elements, headIndex, endIndex, !reversed, parallel);
+        AnArrayList<T> reverse = new AnArrayList<>(elements, headIndex, endIndex, !reversed, policy, wrapped);
+        reverse.stats = stats; //same elements
+        return reverse;
+    }
+
+    /**
+     * @param policy The policy of this list and of the lists derived from it.
+     * @return A list sharing this list's array, with the policy.
+     */
+    public AnArrayList<T> withPolicy(ExecutionPolicy policy) {
+        AnArrayList<T> list = new AnArrayList<>(elements, headIndex, endIndex, reversed, policy, wrapped);
+        list.stats = stats;
+        return list;
+    }
+
+    public ExecutionPolicy policy() {
+        return policy;
     }
 
     @Override
     public AList<T> filter(Predicate<? super T> predicate) {
-        Object[] filtered = stream().filter(predicate).map(AnArrayList::nullIn).toArray();
-        return filtered.length == 0 ? AList.empty() : new AnArrayList<>(filtered, reversed, parallel);
+        Object[] filtered = policy.execute(intSize(), parallel ->
+                stream(parallel).filter(predicate).map(AnArrayList::nullIn).toArray());
+        return filtered.length == 0 ? AList.empty() : new AnArrayList<>(filtered, reversed, policy);
     }
 
     @Override
     public <R> AnArrayList<R> map(Function<? super T, ? extends R> function) {
-        return new AnArrayList<>(stream().map(function).map(AnArrayList::nullIn).toArray(), reversed, parallel);
+        Object[] mapped = policy.execute(intSize(), parallel ->
+                stream(parallel).map(function).map(AnArrayList::nullIn).toArray());
+        return new AnArrayList<>(mapped, reversed, policy);
+    }
+
+    @Override
+    public <R> AList<R> flatMap(Function<? super T, ? extends AList<R>> function) {
+        Object[] flattened = policy.execute(intSize(), parallel -> stream(parallel).flatMap(x -> {
+            AList<R> mapped = function.apply(x);
+            return elementStream(reversed ? mapped.reverse() : mapped);
+        }).toArray());
+        return flattened.length == 0 ? AList.empty() : new AnArrayList<>(flattened, reversed, policy);
     }
 
     @Override
@@ -87,16 +143,342 @@ public class AnArrayList<T> implements AList<T> {
         A accumulator = initial;
         if (reversed) {
             for (int i = endIndex - 1; i >= headIndex; i--) {
-                accumulator = function.apply(accumulator, nullOut(elements[i]));
+                accumulator = function.apply(accumulator, element(i));
             }
             return accumulator;
         }
         for (int i = headIndex; i < endIndex; i++) {
-            accumulator = function.apply(accumulator, nullOut(elements[i]));
+            accumulator = function.apply(accumulator, element(i));
+        }
+        return accumulator;
+    }
+
+    @Override
+    public <A> AList<A> scanLeft(A initial, BiFunction<? super A, ? super T, ? extends A> function) {
+        Object[] scanned = new Object[intSize() + 1];
+        A accumulator = initial;
+        scanned[0] = nullIn(accumulator);
+        for (int i = 0; i < intSize(); i++) {
+            accumulator = function.apply(accumulator, get(i));
+            scanned[i + 1] = nullIn(accumulator);
+        }
+        return new AnArrayList<>(scanned, false, policy);
+    }
+
+    /**
+     * If the policy runs the scan in parallel, the elements are copied into the result array and then scanned with
+     * {@link Arrays#parallelPrefix(Object[], BinaryOperator)}, so there is only one allocation.
+     */
+    @Override
+    public AList<T> prefixScan(T initial, BinaryOperator<T> operator) {
+        return policy.execute(intSize(), parallel -> {
+            if (!parallel) return scanLeft(initial, operator);
+            Object[] scanned = new Object[intSize() + 1];
+            Arrays.parallelSetAll(scanned, i -> nullIn(i == 0 ? initial : get(i - 1)));
+            Arrays.parallelPrefix(scanned, (a, x) -> nullIn(operator.apply(nullOut(a), nullOut(x))));
+            return new AnArrayList<>(scanned, false, policy);
+        });
+    }
+
+    @Override
+    public <A> A foldLeftWhile(A initial, BiFunction<? super A, ? super T, ? extends A> function,
+                               Predicate<? super A> condition) {
+        A accumulator = initial;
+        for (int i = 0; i < intSize() && condition.test(accumulator); i++) {
+            accumulator = function.apply(accumulator, get(i));
         }
         return accumulator;
     }
 
+    @Override
+    public long indexOf(Predicate<? super T> predicate) {
+        for (int i = 0; i < intSize(); i++) {
+            if (predicate.test(get(i))) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public Optional<T> find(Predicate<? super T> predicate) {
+        int index = (int) indexOf(predicate);
+        return index < 0 ? Optional.empty() : Optional.of(get(index));
+    }
+
+    /**
+     * If the policy runs the search in parallel, the elements are tested concurrently and the search is cancelled on
+     * the first match.
+     */
+    @Override
+    public Optional<T> findAny(Predicate<? super T> predicate) {
+        return policy.execute(intSize(), parallel -> {
+            if (!parallel) return find(predicate);
+            OptionalInt index = IntStream.range(0, intSize()).parallel().filter(i -> predicate.test(get(i))).findAny();
+            return index.isPresent() ? Optional.of(get(index.getAsInt())) : Optional.empty();
+        });
+    }
+
+    @Override
+    public boolean anyMatch(Predicate<? super T> predicate) {
+        return policy.execute(intSize(), parallel -> parallel ? stream(true).anyMatch(predicate) : indexOf(predicate) >= 0);
+    }
+
+    /**
+     * @return A list sharing this list's array, there is no copying.
+     */
+    @Override
+    public AList<T> takeWhile(Predicate<? super T> predicate) {
+        int index = (int) indexOf(x -> !predicate.test(x));
+        return index < 0 ? this : slice(0, index);
+    }
+
+    /**
+     * @return A list sharing this list's array, there is no copying.
+     */
+    @Override
+    public AList<T> dropWhile(Predicate<? super T> predicate) {
+        int index = (int) indexOf(x -> !predicate.test(x));
+        return index < 0 ? AList.empty() : slice(index, intSize());
+    }
+
+    /**
+     * @return A list sharing this list's array, there is no copying.
+     */
+    @Override
+    public AList<T> limit(long maxSize) {
+        return maxSize >= intSize() ? this : slice(0, (int) Math.max(maxSize, 0));
+    }
+
+    /**
+     * If the policy runs the operation in parallel, parts of the list are processed concurrently and the results merged.
+     */
+    @Override
+    public AList<T> distinct() {
+        return policy.execute(intSize(), parallel ->
+                parallel ? Grouping.distinct(parts(), AnArrayList::concat) : AList.super.distinct());
+    }
+
+    /**
+     * If the policy runs the operation in parallel, parts of the list are grouped concurrently and the groups merged.
+     */
+    @Override
+    public <K> Map<K, AList<T>> groupBy(Function<? super T, ? extends K> key) {
+        return policy.execute(intSize(), parallel ->
+                parallel ? Grouping.groupBy(parts(), key, AnArrayList::concat) : AList.super.groupBy(key));
+    }
+
+    /**
+     * If the policy runs the operation in parallel, parts of the list are counted concurrently and the counts added.
+     */
+    @Override
+    public <K> Map<K, Long> countBy(Function<? super T, ? extends K> key) {
+        return policy.execute(intSize(), parallel -> parallel ? Grouping.countBy(parts(), key) : AList.super.countBy(key));
+    }
+
+    /**
+     * If the policy runs the operation in parallel, parts of the list are split concurrently and the results merged.
+     */
+    @Override
+    public Map<Boolean, AList<T>> partition(Predicate<? super T> predicate) {
+        return policy.execute(intSize(), parallel ->
+                parallel ? Grouping.partition(parts(), predicate, AnArrayList::concat) : AList.super.partition(predicate));
+    }
+
+    /**
+     * The parts are at least the minimum split size of the policy, and there are about four parts for each thread.
+     *
+     * @return A parallel stream of consecutive sequential parts of this list, sharing the array.
+     */
+    private Stream<AList<T>> parts() {
+        int partSize = Math.max(policy.minSplitSize(), intSize() / (4 * policy.parallelism()));
+        return IntStream.range(0, (intSize() + partSize - 1) / partSize).parallel().mapToObj(part -> {
+            int from = part * partSize;
+            int to = Math.min(from + partSize, intSize());
+            ExecutionPolicy sequential = ExecutionPolicy.sequential();
+            if (reversed) return new AnArrayList<>(elements, endIndex - to, endIndex - from, true, sequential, wrapped);
+            return new AnArrayList<>(elements, headIndex + from, headIndex + to, false, sequential, wrapped);
+        });
+    }
+
+    private static <T> AList<T> concat(List<AList<T>> lists) {
+        Builder<T> builder = new Builder<>(lists.stream().mapToInt(list -> (int) list.size()).sum());
+        lists.forEach(list -> list.foldLeft(builder, Builder::add));
+        return builder.build();
+    }
+
+    /**
+     * Get the elements from the logical range, i.e. the range is reversed together with the list.
+     *
+     * @param from Index of the first element, inclusive.
+     * @param to Index of the last element, exclusive.
+     * @return A list sharing this list's array.
+     */
+    AList<T> slice(int from, int to) {
+        if (from >= to) return AList.empty();
+        if (reversed) {
+            return new AnArrayList<>(elements, endIndex - to, endIndex - from, true, policy, wrapped);
+        }
+        return new AnArrayList<>(elements, headIndex + from, headIndex + to, false, policy, wrapped);
+    }
+
+    /**
+     * @param index The index of the element to replace.
+     * @param value The new element.
+     * @return A copy of this list, with the element at the index replaced.
+     * @throws IndexOutOfBoundsException If there is no element at the index.
+     */
+    public AnArrayList<T> set(int index, T value) {
+        return update(Collections.singletonMap(index, value));
+    }
+
+    /**
+     * Replace any number of elements, copying the array only once.
+     *
+     * @param updates The new elements by index.
+     * @return A copy of this list, with the elements at the indexes replaced.
+     * @throws IndexOutOfBoundsException If there is no element at any of the indexes.
+     */
+    public AnArrayList<T> update(Map<Integer, ? extends T> updates) {
+        Object[] copy = new Object[intSize()];
+        copyElements(0, copy, 0, intSize());
+        updates.forEach((index, value) -> copy[offset(checkIndex(index))] = nullIn(value));
+        return new AnArrayList<>(copy, reversed, policy);
+    }
+
+    /**
+     * @param index The index of the inserted element, the elements from this index on are moved by one.
+     * @param value The element to insert.
+     * @return A copy of this list, with the element inserted.
+     * @throws IndexOutOfBoundsException If the index is negative or greater than the size.
+     */
+    public AnArrayList<T> insert(int index, T value) {
+        if (index < 0 || index > intSize()) throw new IndexOutOfBoundsException("index = " + index);
+        if (intSize() == MAX_SIZE) throw new CreationFailed("Too big");
+        int offset = reversed ? intSize() - index : index;
+        Object[] copy = new Object[intSize() + 1];
+        copyElements(0, copy, 0, offset);
+        copy[offset] = nullIn(value);
+        copyElements(offset, copy, offset + 1, intSize() - offset);
+        return new AnArrayList<>(copy, reversed, policy);
+    }
+
+    /**
+     * @param index The index of the element to remove.
+     * @return A copy of this list without the element, the empty list if it was the only one.
+     * @throws IndexOutOfBoundsException If there is no element at the index.
+     */
+    public AList<T> remove(int index) {
+        int offset = offset(checkIndex(index));
+        if (intSize() == 1) return AList.empty();
+        Object[] copy = new Object[intSize() - 1];
+        copyElements(0, copy, 0, offset);
+        copyElements(offset + 1, copy, offset, intSize() - offset - 1);
+        return new AnArrayList<>(copy, reversed, policy);
+    }
+
+    /**
+     * Copy elements as they are stored in a list's own array, i.e. with the null elements of a wrapped array replaced.
+     *
+     * @param offset The position of the first element, relative to the head index.
+     */
+    private void copyElements(int offset, Object[] target, int targetOffset, int length) {
+        System.arraycopy(elements, headIndex + offset, target, targetOffset, length);
+        if (wrapped) {
+            for (int i = targetOffset; i < targetOffset + length; i++) {
+                if (target[i] == null) target[i] = NULL;
+            }
+        }
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= intSize()) throw new IndexOutOfBoundsException("index = " + index);
+        return index;
+    }
+
+    /**
+     * @param index The logical index, taking reversal into account.
+     * @return The position of the element in the array, relative to the head index.
+     */
+    private int offset(int index) {
+        return reversed ? endIndex - 1 - index - headIndex : index;
+    }
+
+    /**
+     * @param index The logical index, taking reversal into account.
+     * @return The element at the index.
+     */
+    private T get(int index) {
+        return element(arrayIndex(index));
+    }
+
+    /**
+     * @param arrayIndex The index in the array.
+     * @return The element stored at the index.
+     */
+    private T element(int arrayIndex) {
+        return wrapped ? (T) elements[arrayIndex] : nullOut(elements[arrayIndex]);
+    }
+
+    /**
+     * @param index The logical index, taking reversal into account.
+     * @return The index in the array.
+     */
+    private int arrayIndex(int index) {
+        return reversed ? endIndex - 1 - index : headIndex + index;
+    }
+
+    /**
+     * The summary is kept, as the list is immutable, and shared with the reversed list.
+     */
+    @Override
+    public ChunkStats<T> stats() {
+        ChunkStats<T> stats = this.stats;
+        if (stats == null) {
+            stats = ChunkStats.of(this);
+            this.stats = stats;
+        }
+        return stats;
+    }
+
+    /**
+     * @return A random access view, reading the elements directly from this list's array.
+     */
+    @Override
+    public List<T> asJavaList() {
+        return new JavaList<>(this);
+    }
+
+    /**
+     * Lists sharing the same array range in the same order are equal without comparing the elements, and lists with
+     * different hash codes (if they are known) are not equal. Otherwise the elements are compared by index.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof AnArrayList)) return AList.contentEquals(this, other);
+        AnArrayList<?> list = (AnArrayList<?>) other;
+        if (list.elements == elements && list.headIndex == headIndex && list.endIndex == endIndex
+                && (list.reversed == reversed || intSize() == 1)) {
+            return true;
+        }
+        if (list.intSize() != intSize() || hash != 0 && list.hash != 0 && hash != list.hash) return false;
+        for (int i = 0; i < intSize(); i++) {
+            if (!Objects.equals(get(i), list.get(i))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return The hash code of the elements, computed the first time it is needed and kept.
+     */
+    @Override
+    public int hashCode() {
+        int hash = this.hash;
+        if (hash == 0) {
+            hash = policy.execute(intSize(), parallel -> parallel ? AList.contentHash(parts()) : AList.contentHash(this));
+            this.hash = hash;
+        }
+        return hash;
+    }
+
     @Override
     public String toString() {
         return asString();
@@ -107,17 +489,34 @@ public class AnArrayList<T> implements AList<T> {
         return AnArrayList::create;
     }
 
-    private Stream<T> stream() {
-        Stream<T> stream = Arrays.stream(elements, headIndex, endIndex).map(AnArrayList::nullOut);
+    @Override
+    public <R> AList.Builder<R> builder() {
+        return new Builder<>();
+    }
+
+    private Stream<T> stream(boolean parallel) {
+        Stream<T> stream = Arrays.stream(elements, headIndex, endIndex).map(x -> wrapped ? (T) x : nullOut(x));
         if (parallel) {
             stream = stream.parallel();
         }
         return stream;
     }
 
+    /**
+     * Get the elements of a list as they would be stored in the array, i.e. with nulls replaced.
+     * If the list is a non-reversed AnArrayList, its array is streamed directly.
+     */
+    private static Stream<Object> elementStream(AList<?> list) {
+        if (list instanceof AnArrayList && !((AnArrayList) list).reversed && !((AnArrayList) list).wrapped) {
+            AnArrayList<?> arrayList = (AnArrayList) list;
+            return Arrays.stream(arrayList.elements, arrayList.headIndex, arrayList.endIndex);
+        }
+        return list.foldLeft(Stream.builder(), (builder, x) -> builder.add(nullIn(x))).build();
+    }
+
     /**
      * Create AnArrayList from head element and tail list.
-     * If the tail is AnArrayList, its array can be re-used (provided there is free space).
+     * If the tail is AnArrayList, its array can be re-used (provided there is free space and it is not wrapped).
      * Otherwise the tail's elements array is copied into a bigger array. This is potentially very slow,
      * especially if another thread is copying it, as the monitor on the array object is needed.
      * If the tail is another AList implementation, it's elements are added one by one to a new AnArrayList.
@@ -129,7 +528,7 @@ public class AnArrayList<T> implements AList<T> {
      */
     public static <T> AnArrayList<T> create(T head, AList<T> tail) {
         if (tail.isEmpty()) {
-            return new AnArrayList<>(new Object[]{nullIn(head)}, false, false);
+            return new AnArrayList<>(new Object[]{nullIn(head)}, false, ExecutionPolicy.sequential());
         }
         if (tail instanceof AnArrayList) {
             AnArrayList tailList = (AnArrayList) tail;
@@ -147,16 +546,16 @@ public class AnArrayList<T> implements AList<T> {
         int endIndex = tail.endIndex;
         //we need exclusive access to the array here
         synchronized (tail.elements) {
-            if (endIndex == tail.elements.length || tail.elements[endIndex] != null) {//at array end or slot already used
+            if (tail.wrapped || endIndex == tail.elements.length || tail.elements[endIndex] != null) {//at array end or slot already used
                 //copy the array portion into a new array with added free space
                 elements = new Object[tail.newSize()];
-                System.arraycopy(tail.elements, headIndex, elements, 0, tail.intSize());
+                tail.copyElements(0, elements, 0, tail.intSize());
                 headIndex = 0;
                 endIndex = tail.intSize();
             }
             elements[endIndex] = nullIn(head);
         }
-        return new AnArrayList<>(elements, headIndex, endIndex + 1, true, tail.parallel);
+        return new AnArrayList<>(elements, headIndex, endIndex + 1, true, tail.policy);
     }
 
     private static <T> AnArrayList<T> insertAtStart(T head, AnArrayList<T> tail) {
@@ -165,16 +564,16 @@ public class AnArrayList<T> implements AList<T> {
         int endIndex = tail.endIndex;
         //again we need exclusive access to the array here
         synchronized (tail.elements) {
-            if (headIndex == 0 || tail.elements[headIndex - 1] != null) { //at array start or slot already used
+            if (tail.wrapped || headIndex == 0 || tail.elements[headIndex - 1] != null) { //at array start or slot already used
                 int increment = tail.newSize();
                 elements = new Object[increment];
-                System.arraycopy(tail.elements, headIndex, elements, increment - tail.intSize(), tail.intSize());
+                tail.copyElements(0, elements, increment - tail.intSize(), tail.intSize());
                 headIndex = increment - tail.intSize();
                 endIndex = elements.length;
             }
             elements[headIndex - 1] = nullIn(head);
         }
-        return new AnArrayList<>(elements, headIndex - 1, endIndex, false, tail.parallel);
+        return new AnArrayList<>(elements, headIndex - 1, endIndex, false, tail.policy);
     }
 
     private int newSize() {
@@ -193,13 +592,57 @@ public class AnArrayList<T> implements AList<T> {
     }
 
     public static <T> AList<T> of(T... elements) {
-        if (elements.length == 0) return AList.empty();
-        return new AnArrayList<>(Arrays.stream(elements).map(AnArrayList::nullIn).toArray(), false, false);
+        return copyOf(elements, 0, elements.length, ExecutionPolicy.sequential());
     }
 
+    /**
+     * @return A list with the {@link ExecutionPolicy#parallel()} policy.
+     */
     public static <T> AList<T> parallelOf(T... elements) {
-        if (elements.length == 0) return AList.empty();
-        return new AnArrayList<>(Arrays.stream(elements).map(AnArrayList::nullIn).toArray(), false, true);
+        return copyOf(elements, 0, elements.length, ExecutionPolicy.parallel());
+    }
+
+    /**
+     * @return A list of a copy of the array range, the empty list if the range is empty.
+     */
+    static <T> AList<T> copyOf(T[] array, int from, int to, ExecutionPolicy policy) {
+        if (from == to) return AList.empty();
+        Object[] elements = new Object[to - from];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = nullIn(array[from + i]);
+        }
+        return new AnArrayList<>(elements, false, policy);
+    }
+
+    /**
+     * Make a list of the array without copying it. The caller hands over the array, it must not be changed afterwards,
+     * as the change would be visible in the list.
+     *
+     * @param array The elements, which may contain null.
+     * @param <T> The element type.
+     * @return A list using the array, the empty list if the array is empty.
+     */
+    public static <T> AList<T> wrap(T[] array) {
+        return wrap(array, 0, array.length);
+    }
+
+    /**
+     * Make a list of a range of the array without copying it. The caller hands over the range, it must not be changed
+     * afterwards, as the change would be visible in the list.
+     *
+     * @param array The array holding the elements, which may contain null.
+     * @param from Index of the first element, inclusive.
+     * @param to Index of the last element, exclusive.
+     * @param <T> The element type.
+     * @return A list using the array range, the empty list if the range is empty.
+     * @throws IndexOutOfBoundsException If the range is not within the array.
+     */
+    public static <T> AList<T> wrap(T[] array, int from, int to) {
+        if (from < 0 || to > array.length || from > to) {
+            throw new IndexOutOfBoundsException("from = " + from + ", to = " + to);
+        }
+        if (from == to) return AList.empty();
+        return new AnArrayList<>(array, from, to, false, ExecutionPolicy.sequential(), true);
     }
 
     private static <T> AnArrayList<T> toAnArrayList(T head, AList<T> list) {
@@ -220,6 +663,163 @@ public class AnArrayList<T> implements AList<T> {
         return o == NULL ? null : (T) o;
     }
 
+    /**
+     * The java.util.List view of the list.
+     */
+    private static final class JavaList<T> extends AbstractList<T> implements RandomAccess {
+        private final AnArrayList<T> list;
+
+        JavaList(AnArrayList<T> list) {
+            this.list = list;
+        }
+
+        @Override
+        public T get(int index) {
+            return list.get(list.checkIndex(index));
+        }
+
+        @Override
+        public int size() {
+            return list.intSize();
+        }
+
+        @Override
+        public Object[] toArray() {
+            Object[] array = new Object[list.intSize()];
+            if (list.reversed) {
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = list.get(i);
+                }
+                return array;
+            }
+            System.arraycopy(list.elements, list.headIndex, array, 0, array.length);
+            for (int i = 0; i < array.length; i++) {
+                if (array[i] == NULL) array[i] = null;
+            }
+            return array;
+        }
+
+        @Override
+        public <E> E[] toArray(E[] a) {
+            int size = list.intSize();
+            E[] array = a.length >= size ? a : (E[]) Array.newInstance(a.getClass().getComponentType(), size);
+            for (int i = 0; i < size; i++) {
+                array[i] = (E) list.get(i);
+            }
+            if (array.length > size) array[size] = null;
+            return array;
+        }
+
+        @Override
+        public Spliterator<T> spliterator() {
+            return new ElementSpliterator<>(list, 0, list.intSize());
+        }
+    }
+
+    /**
+     * Splits the logical index range of the list in halves.
+     */
+    private static final class ElementSpliterator<T> implements Spliterator<T> {
+        private final AnArrayList<T> list;
+        private int index;
+        private final int end;
+
+        ElementSpliterator(AnArrayList<T> list, int index, int end) {
+            this.list = list;
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (index >= end) return false;
+            action.accept(list.get(index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            while (index < end) {
+                action.accept(list.get(index++));
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int middle = (index + end) >>> 1;
+            if (middle <= index) return null;
+            Spliterator<T> prefix = new ElementSpliterator<>(list, index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+        }
+    }
+
+    /**
+     * Collects elements into an array, which is then used by the built list without copying.
+     * The builder can only build one list, it must not be used after {@link #build()} is called.
+     *
+     * @param <T> The element type.
+     */
+    static final class Builder<T> implements AList.Builder<T> {
+        private final int maxCapacity;
+        private Object[] elements;
+        private int size;
+
+        Builder() {
+            this(10);
+        }
+
+        Builder(int capacity) {
+            this(capacity, MAX_SIZE);
+        }
+
+        /**
+         * @param capacity The initial capacity.
+         * @param maxCapacity The array never grows past this capacity, unless more elements are added.
+         */
+        Builder(int capacity, int maxCapacity) {
+            this.maxCapacity = Math.max(1, Math.min(maxCapacity, MAX_SIZE));
+            this.elements = new Object[Math.max(1, Math.min(capacity, this.maxCapacity))];
+        }
+
+        @Override
+        public Builder<T> add(T element) {
+            if (size == elements.length) {
+                if (size == MAX_SIZE) throw new CreationFailed("Too big");
+                int limit = size < maxCapacity ? maxCapacity : MAX_SIZE;
+                elements = Arrays.copyOf(elements, (int) Math.min((long) size * 2, limit));
+            }
+            elements[size++] = nullIn(element);
+            return this;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * The unused part of the array is left as free slots, so it can be used by {@link #create(Object, AList)}.
+         *
+         * @return A list of the added elements, in the order they were added.
+         */
+        @Override
+        public AList<T> build() {
+            AList<T> list = size == 0 ? AList.empty() : new AnArrayList<>(elements, 0, size, false, ExecutionPolicy.sequential());
+            elements = null;
+            return list;
+        }
+    }
+
     /*
      * used to distinguish between a free slot in the array and a null element in the list
      */
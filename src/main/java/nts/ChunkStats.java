@@ -0,0 +1,117 @@
+package nts;
+
+/**
+ * Summary of the elements of a list (usually a chunk of a MyList): the smallest and biggest element, the number of
+ * elements and the number of null elements. The elements are compared by their natural ordering, so they must be
+ * Comparable with each other.
+ * <br/>
+ * The summary is used to skip whole chunks when looking for elements in a range, see
+ * {@link MyList#filterBetween(Object, Object)}.
+ *
+ * @param <T> The element type.
+ */
+@SuppressWarnings("unchecked")
+public final class ChunkStats<T> {
+    private final T min;
+    private final T max;
+    private final long count;
+    private final long nullCount;
+
+    private ChunkStats(T min, T max, long count, long nullCount) {
+        this.min = min;
+        this.max = max;
+        this.count = count;
+        this.nullCount = nullCount;
+    }
+
+    /**
+     * @return The smallest non-null element, null if there is none.
+     */
+    public T min() {
+        return min;
+    }
+
+    /**
+     * @return The biggest non-null element, null if there is none.
+     */
+    public T max() {
+        return max;
+    }
+
+    /**
+     * @return The number of elements, including nulls.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * @return The number of null elements.
+     */
+    public long nullCount() {
+        return nullCount;
+    }
+
+    /**
+     * @return <code>true</code> if no element can be in the range [from, to].
+     */
+    boolean disjoint(T from, T to) {
+        return count == nullCount || compare(max, from) < 0 || compare(min, to) > 0;
+    }
+
+    /**
+     * @return <code>true</code> if all the elements are in the range [from, to].
+     */
+    boolean within(T from, T to) {
+        return nullCount == 0 && count > 0 && compare(min, from) >= 0 && compare(max, to) <= 0;
+    }
+
+    /**
+     * @return <code>true</code> if the element is not null and is in the range [from, to].
+     */
+    static <T> boolean between(T element, T from, T to) {
+        return element != null && compare(element, from) >= 0 && compare(element, to) <= 0;
+    }
+
+    static <T> int compare(T a, T b) {
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+
+    /**
+     * @param list The list to summarise.
+     * @param <T> The element type.
+     * @return The summary of the list elements.
+     * @throws ClassCastException If the elements are not Comparable.
+     */
+    public static <T> ChunkStats<T> of(AList<T> list) {
+        Accumulator<T> accumulator = list.foldLeft(new Accumulator<>(), Accumulator::add);
+        return new ChunkStats<>(accumulator.min, accumulator.max, accumulator.count, accumulator.nullCount);
+    }
+
+    private static final class Accumulator<T> {
+        private T min;
+        private T max;
+        private long count;
+        private long nullCount;
+
+        Accumulator<T> add(T element) {
+            count++;
+            if (element == null) {
+                nullCount++;
+            } else if (min == null) {
+                min = element;
+                max = element;
+            } else if (compare(element, min) < 0) {
+                min = element;
+            } else if (compare(element, max) > 0) {
+                max = element;
+            }
+            return this;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ChunkStats(min=" + min + ", max=" + max + ", count=" + count + ", nullCount=" + nullCount + ")";
+    }
+}
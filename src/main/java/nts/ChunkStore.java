@@ -0,0 +1,270 @@
+package nts;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the chunks of paged MyLists within a memory budget, by writing the least recently used chunks to temporary
+ * files and reading them back when needed.
+ * <br/>
+ * The budget is the number of elements in the chunks kept in memory, as the size of the elements is not known.
+ * The chunk that is being used is always kept in memory, even if it is bigger than the budget. Chunks are written to
+ * a file only once, the first time they are evicted, so the elements must be Serializable. Evicted chunks are written
+ * outside the store's lock, and they stay available until they are written. A chunk that can't be written is dropped,
+ * and can no longer be read.
+ * <br/>
+ * The tails and the reverse of a paged chunk are views of the same stored chunk, so they are not counted again.
+ * <br/>
+ * Sequential operations on a paged MyList (foldLeft, map, filter) read the next chunk in the background while the
+ * current one is processed. Lists derived from a paged chunk with map, filter and reverse are paged in the same store.
+ * The files are deleted when the store is closed, after which the paged lists can no longer be used.
+ */
+@SuppressWarnings("unchecked")
+public class ChunkStore implements Closeable {
+    private final long budget;
+    private final Path directory;
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<Long, Resident> resident = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, Resident> writing = new HashMap<>(); //evicted chunks, until they are written
+    private final Map<Long, Path> files = new ConcurrentHashMap<>();
+    private final ExecutorService readAhead = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ChunkStore read-ahead");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long residentSize;
+
+    /**
+     * @param budget The maximum number of elements in the chunks kept in memory.
+     * @throws UncheckedIOException If the temporary directory can not be created.
+     */
+    public ChunkStore(long budget) {
+        this(budget, null);
+    }
+
+    /**
+     * @param budget The maximum number of elements in the chunks kept in memory.
+     * @param parent The directory to create the temporary directory in, the default temporary directory if null.
+     * @throws UncheckedIOException If the temporary directory can not be created.
+     */
+    public ChunkStore(long budget, Path parent) {
+        if (budget < 1) throw new IllegalArgumentException("budget = " + budget);
+        this.budget = budget;
+        try {
+            this.directory = parent == null ? Files.createTempDirectory("chunks") : Files.createTempDirectory(parent, "chunks");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Get a paged version of a list. The chunks of the list are not copied, but they can only be garbage collected
+     * after they are evicted from the store.
+     *
+     * @param list The list to page.
+     * @param <T> The element type.
+     * @return A MyList with the same elements and chunk sizes.
+     */
+    public <T> AList<T> page(MyList<T> list) {
+        List<AList<T>> chunks = list.chunkStream().map(this::add).collect(Collectors.toList());
+        return MyList.ofChunks(chunks, list.chunkSize());
+    }
+
+    /**
+     * @return The number of elements in the chunks currently in memory.
+     */
+    public synchronized long residentSize() {
+        return residentSize;
+    }
+
+    <T> AList<T> add(AList<T> chunk) {
+        if (chunk.isEmpty()) return chunk;
+        long id = ids.incrementAndGet();
+        List<Resident> evicted;
+        synchronized (this) {
+            evicted = keep(id, chunk);
+        }
+        write(evicted);
+        return new PagedChunk<>(this, id, chunk.size());
+    }
+
+    /**
+     * @return The whole stored chunk the paged chunk is a view of.
+     */
+    <T> AList<T> load(PagedChunk<T> chunk) {
+        AList<T> list = resident(chunk.id);
+        if (list != null) return list;
+        AList<T> read = read(chunk.id);
+        List<Resident> evicted;
+        synchronized (this) {
+            list = resident(chunk.id);
+            if (list != null) return list;
+            evicted = keep(chunk.id, read);
+        }
+        write(evicted);
+        return read;
+    }
+
+    void prefetch(PagedChunk<?> chunk) {
+        if (resident(chunk.id) == null && !readAhead.isShutdown()) {
+            readAhead.execute(() -> load(chunk));
+        }
+    }
+
+    private synchronized <T> AList<T> resident(long id) {
+        Resident entry = resident.get(id);
+        if (entry == null) entry = writing.get(id);
+        return entry == null ? null : (AList<T>) entry.list;
+    }
+
+    /**
+     * Called with the lock held. The evicted chunks that were never written are moved to the chunks being written.
+     *
+     * @return The chunks to write.
+     */
+    private List<Resident> keep(long id, AList<?> list) {
+        resident.put(id, new Resident(id, list));
+        residentSize += list.size();
+        List<Resident> toWrite = new ArrayList<>();
+        Iterator<Resident> leastRecentlyUsed = resident.values().iterator();
+        while (residentSize > budget && resident.size() > 1) {
+            Resident evicted = leastRecentlyUsed.next();
+            if (!files.containsKey(evicted.id)) {
+                writing.put(evicted.id, evicted);
+                toWrite.add(evicted);
+            }
+            leastRecentlyUsed.remove();
+            residentSize -= evicted.list.size();
+        }
+        return toWrite;
+    }
+
+    /**
+     * Called without the lock. Every chunk is dropped from the chunks being written, even if it could not be written,
+     * so it doesn't stay in memory outside the budget. The first failure is thrown after all the chunks are written.
+     *
+     * @throws UncheckedIOException If a chunk can not be written.
+     */
+    private void write(List<Resident> evicted) {
+        UncheckedIOException failure = null;
+        for (Resident entry : evicted) {
+            try {
+                write(entry.id, entry.list);
+            } catch (UncheckedIOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            } finally {
+                synchronized (this) {
+                    writing.remove(entry.id);
+                }
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    /**
+     * The file is deleted if the chunk can't be written, e.g. if an element is not Serializable.
+     */
+    private void write(long id, AList<?> list) {
+        Path file = null;
+        try {
+            file = Files.createTempFile(directory, "chunk", ".bin");
+            try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                out.writeLong(list.size());
+                for (Object element : list.asJavaList()) {
+                    out.writeObject(element);
+                }
+            }
+            files.put(id, file);
+        } catch (IOException e) {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException deleteFailure) {
+                    e.addSuppressed(deleteFailure);
+                }
+            }
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> AList<T> read(long id) {
+        Path file = files.get(id);
+        if (file == null) throw new IllegalStateException("The chunk could not be written, or the store is closed");
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            long size = in.readLong();
+            AnArrayList.Builder<T> builder = new AnArrayList.Builder<>((int) size);
+            for (long i = 0; i < size; i++) {
+                builder.add((T) in.readObject());
+            }
+            return builder.build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Stop the read-ahead and delete the files.
+     *
+     * @throws UncheckedIOException If the files can not be deleted.
+     */
+    @Override
+    public void close() {
+        readAhead.shutdownNow();
+        synchronized (this) {
+            resident.clear();
+            writing.clear();
+            files.clear();
+            residentSize = 0;
+        }
+        try {
+            List<Path> files;
+            try (Stream<Path> list = Files.list(directory)) {
+                files = list.collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                Files.delete(file);
+            }
+            Files.delete(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A chunk in memory.
+     */
+    private static final class Resident {
+        private final long id;
+        private final AList<?> list;
+
+        Resident(long id, AList<?> list) {
+            this.id = id;
+            this.list = list;
+        }
+    }
+}
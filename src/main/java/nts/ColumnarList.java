@@ -0,0 +1,596 @@
+package nts;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * AList implementation for records, that stores each field of the records in its own array (a column), instead of
+ * storing references to the records.
+ * <br/>
+ * Java has no array of structs, so an Object[] of records means following a reference for every element.
+ * Here the int, long and double fields are stored in primitive arrays, so operations that only need one or two fields
+ * read contiguous memory: see {@link #ints(int)}, {@link #filterInt(int, IntPredicate)} and the row operations,
+ * which get a reusable {@link Row} (a flyweight) pointing into the columns instead of an element.
+ * The elements themselves are only created by the schema when they are needed, e.g. by head or the AList operations.
+ * <br/>
+ * Like AnArrayList, reverse, tail and slices share the columns, and the size is limited to
+ * {@link AnArrayList#MAX_SIZE}. Bigger lists are MyLists with columnar chunks (see {@link #chunkOf(Schema, int, AList)}).
+ *
+ * @param <T> The record type.
+ */
+@SuppressWarnings("unchecked")
+public class ColumnarList<T> implements AList<T>, HasStats<T> {
+    /*
+     * the initial capacity of the indexes collected by a filter
+     */
+    private static final int INITIAL_CAPACITY = 1 << 4;
+
+    private final Schema<T> schema;
+    private final Object[] columns;
+    private final int headIndex; //inclusive
+    private final int endIndex; //exclusive
+    private final boolean reversed;
+    private volatile ChunkStats<T> stats; //computed when first needed
+
+    private ColumnarList(Schema<T> schema, Object[] columns, int headIndex, int endIndex, boolean reversed) {
+        assert headIndex < endIndex;
+
+        this.schema = schema;
+        this.columns = columns;
+        this.headIndex = headIndex;
+        this.endIndex = endIndex;
+        this.reversed = reversed;
+    }
+
+    @Override
+    public T head() {
+        return schema.factory.apply(new Row(columns, arrayIndex(0)));
+    }
+
+    @Override
+    public AList<T> tail() {
+        return slice(1, intSize());
+    }
+
+    @Override
+    public ColumnarList<T> reverse() {
+        ColumnarList<T> reverse = new ColumnarList<>(schema, columns, headIndex, endIndex, !reversed);
+        reverse.stats = stats; //same records
+        return reverse;
+    }
+
+    @Override
+    public long size() {
+        return intSize();
+    }
+
+    /**
+     * The records are created to test them, but the result is copied column by column.
+     */
+    @Override
+    public AList<T> filter(Predicate<? super T> predicate) {
+        return filterRows(row -> predicate.test(schema.factory.apply(row)));
+    }
+
+    @Override
+    public <A> A foldLeft(A initial, BiFunction<? super A, ? super T, ? extends A> function) {
+        return foldRows(initial, (accumulator, row) -> function.apply(accumulator, schema.factory.apply(row)));
+    }
+
+    @Override
+    public AList<T> limit(long maxSize) {
+        return maxSize >= intSize() ? this : slice(0, (int) Math.max(maxSize, 0));
+    }
+
+    /**
+     * @param field The index of an int field in the schema.
+     * @return The values of the field, read directly from the column.
+     */
+    public IntStream ints(int field) {
+        int[] column = (int[]) columns[field];
+        if (reversed) return IntStream.range(0, intSize()).map(i -> column[endIndex - 1 - i]);
+        return Arrays.stream(column, headIndex, endIndex);
+    }
+
+    /**
+     * @param field The index of a long field in the schema.
+     * @return The values of the field, read directly from the column.
+     */
+    public LongStream longs(int field) {
+        long[] column = (long[]) columns[field];
+        if (reversed) return IntStream.range(0, intSize()).mapToLong(i -> column[endIndex - 1 - i]);
+        return Arrays.stream(column, headIndex, endIndex);
+    }
+
+    /**
+     * @param field The index of a double field in the schema.
+     * @return The values of the field, read directly from the column.
+     */
+    public DoubleStream doubles(int field) {
+        double[] column = (double[]) columns[field];
+        if (reversed) return IntStream.range(0, intSize()).mapToDouble(i -> column[endIndex - 1 - i]);
+        return Arrays.stream(column, headIndex, endIndex);
+    }
+
+    /**
+     * @param field The index of an int field in the schema.
+     * @param predicate The condition on the field value.
+     * @return A columnar list of the records with matching values, the empty list if there are none.
+     */
+    public AList<T> filterInt(int field, IntPredicate predicate) {
+        int[] column = (int[]) columns[field];
+        return filterIndexes(index -> predicate.test(column[index]));
+    }
+
+    /**
+     * @param field The index of a long field in the schema.
+     * @param predicate The condition on the field value.
+     * @return A columnar list of the records with matching values, the empty list if there are none.
+     */
+    public AList<T> filterLong(int field, LongPredicate predicate) {
+        long[] column = (long[]) columns[field];
+        return filterIndexes(index -> predicate.test(column[index]));
+    }
+
+    /**
+     * @param field The index of a double field in the schema.
+     * @param predicate The condition on the field value.
+     * @return A columnar list of the records with matching values, the empty list if there are none.
+     */
+    public AList<T> filterDouble(int field, DoublePredicate predicate) {
+        double[] column = (double[]) columns[field];
+        return filterIndexes(index -> predicate.test(column[index]));
+    }
+
+    /**
+     * @param predicate The condition on the row, which must not be kept, as it is reused for the next row.
+     * @return A columnar list of the matching records, the empty list if there are none.
+     */
+    public AList<T> filterRows(Predicate<? super Row> predicate) {
+        Row row = new Row(columns, 0);
+        return filterIndexes(index -> {
+            row.index = index;
+            return predicate.test(row);
+        });
+    }
+
+    /**
+     * @param function The function applied to the accumulator and each row, which must not be kept, as it is reused
+     *                 for the next row.
+     * @return The accumulated value.
+     */
+    public <A> A foldRows(A initial, BiFunction<? super A, ? super Row, ? extends A> function) {
+        Row row = new Row(columns, 0);
+        A accumulator = initial;
+        for (int i = 0; i < intSize(); i++) {
+            row.index = arrayIndex(i);
+            accumulator = function.apply(accumulator, row);
+        }
+        return accumulator;
+    }
+
+    /**
+     * @param function The function applied to each row, which must not be kept, as it is reused for the next row.
+     * @return AnArrayList of the results.
+     */
+    public <R> AList<R> mapRows(Function<? super Row, ? extends R> function) {
+        AnArrayList.Builder<R> result = new AnArrayList.Builder<>(intSize());
+        return foldRows(result, (builder, row) -> builder.add(function.apply(row))).build();
+    }
+
+    /**
+     * @param from Index of the first element, inclusive.
+     * @param to Index of the last element, exclusive.
+     * @return A list of the logical range, sharing the columns.
+     */
+    AList<T> slice(int from, int to) {
+        if (from >= to) return AList.empty();
+        if (reversed) return new ColumnarList<>(schema, columns, endIndex - to, endIndex - from, true);
+        return new ColumnarList<>(schema, columns, headIndex + from, headIndex + to, false);
+    }
+
+    /**
+     * The indexes of the matching records are collected first, then each column of the result is filled in a single
+     * loop over them. The indexes array starts small and grows with the matches.
+     */
+    private AList<T> filterIndexes(IntPredicate predicate) {
+        int size = intSize();
+        int[] indexes = new int[Math.min(size, INITIAL_CAPACITY)];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int index = arrayIndex(i);
+            if (predicate.test(index)) {
+                if (count == indexes.length) {
+                    indexes = Arrays.copyOf(indexes, (int) Math.min((long) count * 2, size));
+                }
+                indexes[count++] = index;
+            }
+        }
+        if (count == 0) return AList.empty();
+        return new ColumnarList<>(schema, schema.gather(columns, indexes, count), 0, count, false);
+    }
+
+    private int arrayIndex(int index) {
+        return reversed ? endIndex - 1 - index : headIndex + index;
+    }
+
+    private int intSize() {
+        return endIndex - headIndex;
+    }
+
+    /**
+     * Lists sharing the same columns and range are equal without creating the records.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof ColumnarList) {
+            ColumnarList<?> list = (ColumnarList<?>) other;
+            if (list.columns == columns && list.headIndex == headIndex && list.endIndex == endIndex
+                    && list.reversed == reversed) {
+                return true;
+            }
+        }
+        return AList.contentEquals(this, other);
+    }
+
+    /**
+     * The summary is computed from the records created from the rows, and shared with the reversed list.
+     */
+    @Override
+    public ChunkStats<T> stats() {
+        ChunkStats<T> stats = this.stats;
+        if (stats == null) {
+            stats = ChunkStats.of(this);
+            this.stats = stats;
+        }
+        return stats;
+    }
+
+    /**
+     * @return The hash code of the elements, computed from the records created from the rows.
+     */
+    @Override
+    public int hashCode() {
+        return AList.contentHash(this);
+    }
+
+    @Override
+    public String toString() {
+        return asString();
+    }
+
+    /**
+     * The created lists are AnArrayLists, as the factory can't know the schema.
+     */
+    @Override
+    public AList.Factory factory() {
+        return AnArrayList::create;
+    }
+
+    @Override
+    public <R> AList.Builder<R> builder() {
+        return new AnArrayList.Builder<>();
+    }
+
+    /**
+     * @param schema The fields of the records.
+     * @param elements The records, which must not be null.
+     * @param <T> The record type.
+     * @return A columnar list of the records, the empty list if there are none.
+     * @throws AList.CreationFailed If there are more than {@link AnArrayList#MAX_SIZE} records.
+     */
+    public static <T> AList<T> of(Schema<T> schema, AList<? extends T> elements) {
+        if (elements.size() > AnArrayList.MAX_SIZE) throw new AList.CreationFailed("Too big");
+        Columns<T> result = new Columns<>(schema, (int) elements.size());
+        return elements.foldLeft(result, Columns::add).build();
+    }
+
+    /**
+     * @param schema The fields of the records.
+     * @param chunkSize The number of records in each chunk, the last one may be smaller.
+     * @param elements The records, which must not be null.
+     * @param <T> The record type.
+     * @return A MyList of columnar chunks, the empty list if there are no records.
+     */
+    public static <T> AList<T> chunkOf(Schema<T> schema, int chunkSize, AList<? extends T> elements) {
+        if (chunkSize < 1 || chunkSize > AnArrayList.MAX_SIZE) {
+            throw new IllegalArgumentException("chunkSize = " + chunkSize);
+        }
+        List<AList<T>> chunks = new ArrayList<>();
+        long size = elements.size();
+        Columns<T> first = new Columns<>(schema, (int) Math.min(chunkSize, size));
+        Columns<T> last = elements.foldLeft(first, (chunk, element) -> {
+            if (chunk.size == chunkSize) {
+                chunks.add(chunk.build());
+                //the last chunk only gets the columns for the remaining records
+                chunk = new Columns<>(schema, (int) Math.min(chunkSize, size - (long) chunks.size() * chunkSize));
+            }
+            return chunk.add(element);
+        });
+        if (last.size > 0) chunks.add(last.build());
+        return MyList.ofChunks(chunks, chunkSize);
+    }
+
+    /**
+     * Get the columnar parts of a list, so the column operations can be applied to a MyList with columnar chunks.
+     *
+     * @param list A ColumnarList, a MyList of ColumnarLists or the empty list.
+     * @param <T> The record type.
+     * @return The columnar chunks, in order.
+     * @throws IllegalArgumentException If the list is not made of ColumnarLists.
+     */
+    public static <T> Stream<ColumnarList<T>> chunks(AList<T> list) {
+        if (list.isEmpty()) return Stream.empty();
+        if (list instanceof ColumnarList) return Stream.of((ColumnarList<T>) list);
+        if (list instanceof MyList) return ((MyList<T>) list).chunkStream().flatMap(ColumnarList::chunks);
+        throw new IllegalArgumentException("Not a columnar list: " + list.getClass().getName());
+    }
+
+    /**
+     * The fields of a record type, in the order they are added, and how to create a record from a row.
+     * A schema is immutable, adding a field returns a new schema.
+     *
+     * @param <T> The record type.
+     */
+    public static final class Schema<T> {
+        private final Function<? super Row, ? extends T> factory;
+        private final List<Field> fields;
+
+        private Schema(Function<? super Row, ? extends T> factory, List<Field> fields) {
+            this.factory = factory;
+            this.fields = fields;
+        }
+
+        /**
+         * @param factory Creates a record from the values of a row, which must not be kept.
+         * @param <T> The record type.
+         * @return A schema without fields.
+         */
+        public static <T> Schema<T> of(Function<? super Row, ? extends T> factory) {
+            return new Schema<>(factory, Collections.emptyList());
+        }
+
+        /**
+         * @param getter Gets the field value from a record.
+         * @return A schema with an int field added, its index is the number of fields before it.
+         */
+        public Schema<T> withInt(ToIntFunction<? super T> getter) {
+            return with(Type.INT, getter);
+        }
+
+        /**
+         * @param getter Gets the field value from a record.
+         * @return A schema with a long field added, its index is the number of fields before it.
+         */
+        public Schema<T> withLong(ToLongFunction<? super T> getter) {
+            return with(Type.LONG, getter);
+        }
+
+        /**
+         * @param getter Gets the field value from a record.
+         * @return A schema with a double field added, its index is the number of fields before it.
+         */
+        public Schema<T> withDouble(ToDoubleFunction<? super T> getter) {
+            return with(Type.DOUBLE, getter);
+        }
+
+        /**
+         * @param getter Gets the field value from a record.
+         * @return A schema with an object field added, its index is the number of fields before it.
+         */
+        public Schema<T> withObject(Function<? super T, ?> getter) {
+            return with(Type.OBJECT, getter);
+        }
+
+        private Schema<T> with(Type type, Object getter) {
+            List<Field> fields = new ArrayList<>(this.fields);
+            fields.add(new Field(type, getter));
+            return new Schema<>(factory, Collections.unmodifiableList(fields));
+        }
+
+        private Object[] gather(Object[] columns, int[] indexes, int count) {
+            Object[] gathered = new Object[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                gathered[i] = fields.get(i).type.gather(columns[i], indexes, count);
+            }
+            return gathered;
+        }
+
+        private Object[] newColumns(int capacity) {
+            Object[] columns = new Object[fields.size()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = fields.get(i).type.newColumn(capacity);
+            }
+            return columns;
+        }
+
+        private void set(Object[] columns, int index, T element) {
+            for (int i = 0; i < columns.length; i++) {
+                Object getter = fields.get(i).getter;
+                switch (fields.get(i).type) {
+                    case INT:
+                        ((int[]) columns[i])[index] = ((ToIntFunction<? super T>) getter).applyAsInt(element);
+                        break;
+                    case LONG:
+                        ((long[]) columns[i])[index] = ((ToLongFunction<? super T>) getter).applyAsLong(element);
+                        break;
+                    case DOUBLE:
+                        ((double[]) columns[i])[index] = ((ToDoubleFunction<? super T>) getter).applyAsDouble(element);
+                        break;
+                    default:
+                        ((Object[]) columns[i])[index] = ((Function<? super T, ?>) getter).apply(element);
+                }
+            }
+        }
+    }
+
+    private enum Type {
+        INT {
+            Object newColumn(int size) {
+                return new int[size];
+            }
+
+            Object gather(Object column, int[] indexes, int count) {
+                int[] source = (int[]) column;
+                int[] gathered = new int[count];
+                for (int i = 0; i < count; i++) {
+                    gathered[i] = source[indexes[i]];
+                }
+                return gathered;
+            }
+        },
+        LONG {
+            Object newColumn(int size) {
+                return new long[size];
+            }
+
+            Object gather(Object column, int[] indexes, int count) {
+                long[] source = (long[]) column;
+                long[] gathered = new long[count];
+                for (int i = 0; i < count; i++) {
+                    gathered[i] = source[indexes[i]];
+                }
+                return gathered;
+            }
+        },
+        DOUBLE {
+            Object newColumn(int size) {
+                return new double[size];
+            }
+
+            Object gather(Object column, int[] indexes, int count) {
+                double[] source = (double[]) column;
+                double[] gathered = new double[count];
+                for (int i = 0; i < count; i++) {
+                    gathered[i] = source[indexes[i]];
+                }
+                return gathered;
+            }
+        },
+        OBJECT {
+            Object newColumn(int size) {
+                return new Object[size];
+            }
+
+            Object gather(Object column, int[] indexes, int count) {
+                Object[] source = (Object[]) column;
+                Object[] gathered = new Object[count];
+                for (int i = 0; i < count; i++) {
+                    gathered[i] = source[indexes[i]];
+                }
+                return gathered;
+            }
+        };
+
+        abstract Object newColumn(int size);
+
+        /**
+         * @return A new column of the values at the first count indexes, in the same order.
+         */
+        abstract Object gather(Object column, int[] indexes, int count);
+    }
+
+    private static final class Field {
+        final Type type;
+        final Object getter;
+
+        Field(Type type, Object getter) {
+            this.type = type;
+            this.getter = getter;
+        }
+    }
+
+    /**
+     * A view of one record, reading the field values from the columns. The row operations move the same row from
+     * record to record, so it is only valid while the function is called.
+     */
+    public static final class Row {
+        private final Object[] columns;
+        private int index;
+
+        private Row(Object[] columns, int index) {
+            this.columns = columns;
+            this.index = index;
+        }
+
+        /**
+         * @throws ClassCastException If the field is not an int field.
+         */
+        public int getInt(int field) {
+            return ((int[]) columns[field])[index];
+        }
+
+        /**
+         * @throws ClassCastException If the field is not a long field.
+         */
+        public long getLong(int field) {
+            return ((long[]) columns[field])[index];
+        }
+
+        /**
+         * @throws ClassCastException If the field is not a double field.
+         */
+        public double getDouble(int field) {
+            return ((double[]) columns[field])[index];
+        }
+
+        /**
+         * @throws ClassCastException If the field is not an object field.
+         */
+        public <V> V get(int field) {
+            return (V) ((Object[]) columns[field])[index];
+        }
+    }
+
+    /**
+     * Appends records to columns, growing them as needed.
+     */
+    private static final class Columns<T> {
+        private final Schema<T> schema;
+        private Object[] columns;
+        private int capacity;
+        private int size;
+
+        Columns(Schema<T> schema, int capacity) {
+            this.schema = schema;
+            this.capacity = Math.max(1, capacity);
+            this.columns = schema.newColumns(this.capacity);
+        }
+
+        Columns<T> add(T element) {
+            ensureCapacity();
+            schema.set(columns, size++, element);
+            return this;
+        }
+
+        private void ensureCapacity() {
+            if (size < capacity) return;
+            if (size == AnArrayList.MAX_SIZE) throw new AList.CreationFailed("Too big");
+            capacity = (int) Math.min((long) capacity * 2, AnArrayList.MAX_SIZE);
+            Object[] grown = schema.newColumns(capacity);
+            for (int i = 0; i < columns.length; i++) {
+                System.arraycopy(columns[i], 0, grown[i], 0, size);
+            }
+            columns = grown;
+        }
+
+        AList<T> build() {
+            return size == 0 ? AList.empty() : new ColumnarList<>(schema, columns, 0, size, false);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package nts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects elements added by many threads into a MyList.
+ * <br/>
+ * The elements are added to stripes, and the stripe of a thread is chosen by its id, so threads mostly add to
+ * different stripes and only lock their own. A stripe fills fixed-size segments, which are never copied while
+ * elements are added. When a stripe holds a full chunk, it is sealed: the segments are joined into the chunk once,
+ * or used as is when there is only one. The sealed chunks become the chunks of the created list.
+ * <br/>
+ * The order of the elements added by one thread is preserved, but the chunks of different stripes are ordered by the
+ * time they were sealed.
+ * <br/>
+ * The stripes are kept by the builder, and are not indexed by the threads themselves, so neither the threads that
+ * finished nor those that outlive the builder (e.g. pooled threads) are kept reachable.
+ *
+ * @param <T> The element type.
+ */
+public class ConcurrentBuilder<T> {
+    /*
+     * the size of the segments a stripe fills
+     */
+    private static final int SEGMENT_SIZE = 1 << 10;
+
+    private final int chunkSize;
+    private final Stripe<T>[] stripes;
+    private final Queue<AList<T>> sealed = new ConcurrentLinkedQueue<>();
+    private volatile boolean frozen;
+
+    public ConcurrentBuilder() {
+        this(MyList.DEFAULT_CHUNK_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentBuilder(int chunkSize) {
+        if (chunkSize < 1) throw new IllegalArgumentException("chunkSize = " + chunkSize);
+        this.chunkSize = chunkSize;
+        int count = Integer.highestOneBit(4 * Runtime.getRuntime().availableProcessors() - 1) << 1;
+        this.stripes = (Stripe<T>[]) new Stripe<?>[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe<>(chunkSize, sealed);
+        }
+    }
+
+    /**
+     * Add an element to the stripe of the current thread.
+     *
+     * @param element The element to add.
+     * @return This builder.
+     * @throws IllegalStateException If the builder is already frozen, also when it is frozen while adding.
+     */
+    public ConcurrentBuilder<T> add(T element) {
+        long id = Thread.currentThread().getId();
+        Stripe<T> stripe = stripes[Long.hashCode(id * 0x9E3779B97F4A7C15L) & (stripes.length - 1)];
+        synchronized (stripe) {
+            //checked under the lock, so the element is either added before freeze() seals the stripe, or not at all
+            if (frozen) throw new IllegalStateException("Already frozen");
+            stripe.add(element);
+        }
+        return this;
+    }
+
+    /**
+     * Get a list of the elements in the sealed chunks. The elements in the chunks that are not full yet are not
+     * included. Threads can keep adding elements while the snapshot is taken.
+     *
+     * @return The list of elements in the sealed chunks.
+     */
+    public AList<T> snapshot() {
+        return MyList.ofChunks(new ArrayList<>(sealed), chunkSize);
+    }
+
+    /**
+     * Seal the chunks of all the stripes and get the list of all elements added. No more elements can be added:
+     * the threads still adding get an IllegalStateException.
+     *
+     * @return The list of all the added elements.
+     */
+    public synchronized AList<T> freeze() {
+        frozen = true;
+        for (Stripe<T> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.seal();
+            }
+        }
+        return snapshot();
+    }
+
+    /**
+     * The chunk some threads are currently adding to, as a chain of segments. It only knows the queue of sealed
+     * chunks, not the builder. Guarded by its own monitor.
+     */
+    private static final class Stripe<T> {
+        private final int chunkSize;
+        private final Queue<AList<T>> sealed;
+        private final List<AnArrayList.Builder<T>> segments = new ArrayList<>();
+        private AnArrayList.Builder<T> segment;
+        private int size;
+
+        Stripe(int chunkSize, Queue<AList<T>> sealed) {
+            this.chunkSize = chunkSize;
+            this.sealed = sealed;
+        }
+
+        void add(T element) {
+            if (segment == null || segment.size() == SEGMENT_SIZE) {
+                int length = Math.min(SEGMENT_SIZE, chunkSize - size);
+                segment = new AnArrayList.Builder<>(length, length);
+                segments.add(segment);
+            }
+            segment.add(element);
+            if (++size == chunkSize) {
+                seal();
+            }
+        }
+
+        void seal() {
+            if (size == 0) return;
+            if (segments.size() == 1) {
+                sealed.add(segment.build());
+            } else {
+                AnArrayList.Builder<T> chunk = new AnArrayList.Builder<>(size, size);
+                for (AnArrayList.Builder<T> full : segments) {
+                    full.build().asJavaList().forEach(chunk::add);
+                }
+                sealed.add(chunk.build());
+            }
+            segments.clear();
+            segment = null;
+            size = 0;
+        }
+    }
+}
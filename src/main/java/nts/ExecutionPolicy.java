@@ -0,0 +1,166 @@
+package nts;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Decides whether a list operation runs in parallel, and in which fork/join pool.
+ * <br/>
+ * A sequential policy never forks and a parallel policy forks whenever the list can be split into at least two parts
+ * of the minimum split size. An adaptive policy also estimates the cost of processing an element, from the time taken
+ * by the operations it ran, and only forks when the estimated work of the operation is worth it. The estimate is a
+ * moving average over all the operations of the lists sharing the policy, so lists doing very different work should
+ * use different adaptive policies. Only one operation is timed at a time, so operations run by another operation
+ * (e.g. on the chunks of a MyList) are not counted twice.
+ * <br/>
+ * Parallel operations run in the pool of the policy, the common pool by default. A policy is immutable (apart from
+ * the estimate), so the same policy can be used by any number of lists, and a list can be given a different policy
+ * for a single call, e.g. {@code list.withPolicy(policy).map(f)}.
+ */
+public final class ExecutionPolicy {
+    /**
+     * The default minimum number of elements processed by a single task.
+     */
+    public static final int DEFAULT_MIN_SPLIT_SIZE = 1 << 10;
+
+    /*
+     * the estimated work, in nanoseconds, above which an adaptive policy forks
+     */
+    private static final long PARALLEL_THRESHOLD_NANOS = 100_000;
+    /*
+     * the estimated cost of an element before any operation was timed
+     */
+    private static final double INITIAL_COST_NANOS = 10;
+
+    private static final ExecutionPolicy SEQUENTIAL = new ExecutionPolicy(Mode.SEQUENTIAL, DEFAULT_MIN_SPLIT_SIZE, null);
+    private static final ExecutionPolicy PARALLEL = new ExecutionPolicy(Mode.PARALLEL, DEFAULT_MIN_SPLIT_SIZE, null);
+
+    private enum Mode {SEQUENTIAL, PARALLEL, ADAPTIVE}
+
+    private final Mode mode;
+    private final int minSplitSize;
+    private final ForkJoinPool pool; //null for the common pool
+    private volatile double costNanos = INITIAL_COST_NANOS; //estimated time per element, only used when adaptive
+    private final AtomicBoolean timing = new AtomicBoolean(); //true while an operation is timed
+
+    private ExecutionPolicy(Mode mode, int minSplitSize, ForkJoinPool pool) {
+        this.mode = mode;
+        this.minSplitSize = minSplitSize;
+        this.pool = pool;
+    }
+
+    /**
+     * @return The policy that runs every operation in the calling thread.
+     */
+    public static ExecutionPolicy sequential() {
+        return SEQUENTIAL;
+    }
+
+    /**
+     * @return The policy that runs operations on lists of at least twice the minimum split size in parallel.
+     */
+    public static ExecutionPolicy parallel() {
+        return PARALLEL;
+    }
+
+    /**
+     * @return A new adaptive policy, with its own estimate of the element cost.
+     */
+    public static ExecutionPolicy adaptive() {
+        return new ExecutionPolicy(Mode.ADAPTIVE, DEFAULT_MIN_SPLIT_SIZE, null);
+    }
+
+    /**
+     * @param minSplitSize The minimum number of elements processed by a single task.
+     * @return A policy of the same kind, with the minimum split size.
+     */
+    public ExecutionPolicy withMinSplitSize(int minSplitSize) {
+        if (minSplitSize < 1) throw new IllegalArgumentException("minSplitSize = " + minSplitSize);
+        return new ExecutionPolicy(mode, minSplitSize, pool);
+    }
+
+    /**
+     * @param pool The pool running the parallel operations.
+     * @return A policy of the same kind, using the pool.
+     */
+    public ExecutionPolicy withPool(ForkJoinPool pool) {
+        return new ExecutionPolicy(mode, minSplitSize, pool == ForkJoinPool.commonPool() ? null : pool);
+    }
+
+    /**
+     * @param size The number of elements processed by an operation.
+     * @return True if the operation should run in parallel.
+     */
+    public boolean isParallel(long size) {
+        switch (mode) {
+            case SEQUENTIAL:
+                return false;
+            case PARALLEL:
+                return size >= 2L * minSplitSize;
+            default:
+                return size >= 2L * minSplitSize && size * costNanos >= PARALLEL_THRESHOLD_NANOS;
+        }
+    }
+
+    int minSplitSize() {
+        return minSplitSize;
+    }
+
+    /**
+     * @return The number of threads of the pool.
+     */
+    int parallelism() {
+        return pool == null ? ForkJoinPool.getCommonPoolParallelism() : pool.getParallelism();
+    }
+
+    /**
+     * Run an operation in parallel if the policy says so, in the pool of the policy. An adaptive policy times the
+     * operation to update its estimate, unless it is already timing an operation, which may be the one running this
+     * operation.
+     *
+     * @param size The number of elements processed by the operation.
+     * @param operation The operation, given the decision.
+     * @return The result of the operation.
+     */
+    <R> R execute(long size, Operation<R> operation) {
+        boolean parallel = isParallel(size);
+        if (mode != Mode.ADAPTIVE || size == 0 || !timing.compareAndSet(false, true)) {
+            return parallel ? inPool(operation) : operation.run(false);
+        }
+        try {
+            long start = System.nanoTime();
+            R result = parallel ? inPool(operation) : operation.run(false);
+            double elapsed = System.nanoTime() - start;
+            costNanos = costNanos * 0.75 + (parallel ? elapsed * parallelism() : elapsed) / size * 0.25;
+            return result;
+        } finally {
+            timing.set(false);
+        }
+    }
+
+    /**
+     * Parallel streams and fork/join tasks started from a worker thread run in the worker's pool, so the operation is
+     * submitted to the pool, unless it is the common pool or the calling thread already belongs to it.
+     */
+    private <R> R inPool(Operation<R> operation) {
+        if (pool == null || Thread.currentThread() instanceof ForkJoinWorkerThread
+                && ((ForkJoinWorkerThread) Thread.currentThread()).getPool() == pool) {
+            return operation.run(true);
+        }
+        return pool.submit(() -> operation.run(true)).join();
+    }
+
+    @Override
+    public String toString() {
+        return mode.name().toLowerCase() + "(minSplitSize = " + minSplitSize + ", pool = " + (pool == null ? "common" : pool) + ")";
+    }
+
+    /**
+     * An operation that can run sequentially or in parallel.
+     */
+    @FunctionalInterface
+    interface Operation<R> {
+        R run(boolean parallel);
+    }
+}
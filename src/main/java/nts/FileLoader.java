@@ -0,0 +1,227 @@
+package nts;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Loads a file of records into a MyList, parsing parts of the file in parallel.
+ * <br/>
+ * The file is split into segments of about the segment size, that end at a record boundary: after a newline for
+ * newline-delimited records, or at a multiple of the record length for fixed-length records. The segments are
+ * memory-mapped and parsed concurrently in the default fork/join pool. The elements of a segment become a chunk of
+ * the resulting list, or several when there are more than {@link MyList#DEFAULT_CHUNK_SIZE} of them: slices of the
+ * segment's array, so the elements are not copied again.
+ * <br/>
+ * The decoder gets each record as a read-only buffer, with the position at the start of the record and the limit at
+ * its end (without the line terminator, \n or \r\n, for newline-delimited records). It may be called concurrently,
+ * so it should not keep any state.
+ *
+ * @param <T> The element type.
+ */
+public final class FileLoader<T> {
+    /**
+     * The default segment size in bytes.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 24;
+
+    private final Decoder<T> decoder;
+    private final int recordLength; //0 for newline-delimited records
+    private final int segmentSize;
+
+    private FileLoader(Decoder<T> decoder, int recordLength, int segmentSize) {
+        this.decoder = decoder;
+        this.recordLength = recordLength;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Decodes a record into an element.
+     *
+     * @param <T> The element type.
+     */
+    @FunctionalInterface
+    public interface Decoder<T> {
+        /**
+         * @param record The bytes of the record, between the position and the limit of the buffer.
+         * @return The element, which may be null.
+         */
+        T decode(ByteBuffer record);
+
+        /**
+         * @param function Function converting the decoded record.
+         * @param <R> The converted type.
+         * @return A decoder applying the function to the result of this decoder.
+         */
+        default <R> Decoder<R> andThen(Function<? super T, ? extends R> function) {
+            return record -> function.apply(decode(record));
+        }
+    }
+
+    /**
+     * @param charset The encoding of the records.
+     * @return A decoder returning each record as a String.
+     */
+    public static Decoder<String> string(Charset charset) {
+        return record -> charset.decode(record).toString();
+    }
+
+    /**
+     * @param decoder The decoder of the lines.
+     * @param <T> The element type.
+     * @return A loader of a file with a record on each line.
+     */
+    public static <T> FileLoader<T> lines(Decoder<T> decoder) {
+        return new FileLoader<>(decoder, 0, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param recordLength The number of bytes in each record.
+     * @param decoder The decoder of the records.
+     * @param <T> The element type.
+     * @return A loader of a file of consecutive records of the same length.
+     */
+    public static <T> FileLoader<T> fixedLength(int recordLength, Decoder<T> decoder) {
+        if (recordLength < 1) throw new IllegalArgumentException("recordLength = " + recordLength);
+        return new FileLoader<>(decoder, recordLength, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * A segment has at most as many records as bytes, so a segment size up to {@link AnArrayList#MAX_SIZE} keeps
+     * the chunks within the size of AnArrayList.
+     *
+     * @param segmentSize The number of bytes parsed by a single task, a fixed-length segment has at least one record.
+     * @return A loader with the segment size.
+     */
+    public FileLoader<T> withSegmentSize(int segmentSize) {
+        if (segmentSize < 1 || segmentSize > AnArrayList.MAX_SIZE) {
+            throw new IllegalArgumentException("segmentSize = " + segmentSize);
+        }
+        return new FileLoader<>(decoder, recordLength, segmentSize);
+    }
+
+    /**
+     * @param file The file to load.
+     * @return A MyList with the chunks of each segment of the file, the empty list if there are no records.
+     * @throws UncheckedIOException If the file can not be read, or the size of a file of fixed-length records is not
+     *                              a multiple of the record length.
+     */
+    public AList<T> load(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<long[]> segments = recordLength == 0 ? lineSegments(channel) : fixedSegments(channel.size());
+            List<AList<T>> chunks = segments.parallelStream()
+                                            .map(segment -> parse(channel, segment[0], segment[1]))
+                                            .flatMap(FileLoader::chunks)
+                                            .collect(Collectors.toList());
+            return MyList.ofChunks(chunks, MyList.DEFAULT_CHUNK_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<long[]> fixedSegments(long size) throws IOException {
+        if (size % recordLength != 0) {
+            throw new IOException("File size " + size + " is not a multiple of the record length " + recordLength);
+        }
+        long length = Math.max(1, segmentSize / recordLength) * recordLength;
+        List<long[]> segments = new ArrayList<>();
+        for (long start = 0; start < size; start += length) {
+            segments.add(new long[]{start, Math.min(start + length, size)});
+        }
+        return segments;
+    }
+
+    /**
+     * Only the bytes after the nominal end of each segment are read, to find the end of the line.
+     */
+    private List<long[]> lineSegments(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<long[]> segments = new ArrayList<>();
+        long start = 0;
+        while (start < size) {
+            long end = start + segmentSize >= size ? size : lineEnd(channel, start + segmentSize - 1, size);
+            segments.add(new long[]{start, end});
+            start = end;
+        }
+        return segments;
+    }
+
+    /**
+     * @return The position after the first newline at or after the position, the size if there is none.
+     */
+    private static long lineEnd(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 13);
+        while (position < size) {
+            ((Buffer) buffer).clear(); //Buffer methods, so the class also runs on Java 8
+            int read = channel.read(buffer, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') return position + i + 1;
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private AList<T> parse(FileChannel channel, long start, long end) {
+        MappedByteBuffer segment;
+        try {
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int length = segment.limit();
+        if (recordLength > 0) {
+            AnArrayList.Builder<T> chunk = new AnArrayList.Builder<>(length / recordLength);
+            for (int position = 0; position < length; position += recordLength) {
+                chunk.add(decode(segment, position, position + recordLength));
+            }
+            return chunk.build();
+        }
+        AnArrayList.Builder<T> chunk = new AnArrayList.Builder<>(1 << 10);
+        int lineStart = 0;
+        for (int position = 0; position < length; position++) {
+            if (segment.get(position) == '\n') {
+                int lineEnd = position > lineStart && segment.get(position - 1) == '\r' ? position - 1 : position;
+                chunk.add(decode(segment, lineStart, lineEnd));
+                lineStart = position + 1;
+            }
+        }
+        if (lineStart < length) {
+            chunk.add(decode(segment, lineStart, length));
+        }
+        return chunk.build();
+    }
+
+    /**
+     * A segment has at most as many records as bytes, which may be more than the chunk size.
+     */
+    private static <T> Stream<AList<T>> chunks(AList<T> segment) {
+        if (segment.size() <= MyList.DEFAULT_CHUNK_SIZE) {
+            return segment.isEmpty() ? Stream.empty() : Stream.of(segment);
+        }
+        AnArrayList<T> list = (AnArrayList<T>) segment;
+        int size = (int) list.size();
+        int chunkSize = MyList.DEFAULT_CHUNK_SIZE;
+        return IntStream.range(0, (size + chunkSize - 1) / chunkSize)
+                        .mapToObj(i -> list.slice(i * chunkSize, Math.min(size, (i + 1) * chunkSize)));
+    }
+
+    private T decode(ByteBuffer segment, int start, int end) {
+        ByteBuffer record = segment.asReadOnlyBuffer();
+        ((Buffer) record).limit(end).position(start);
+        return decoder.decode(record);
+    }
+}
@@ -0,0 +1,378 @@
+package nts;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * AList implementation that computes the elements from their index, instead of storing them.
+ * <br/>
+ * The list only holds the function and the range of indexes, so size, reverse, tail and slice are O(1) and don't
+ * compute any elements. Elements are computed every time they are needed, unless the list is memoized, in which case
+ * they are computed once for each part of the list that is used (see {@link #memoize()}).
+ * <br/>
+ * The map and filter operations split the list into parts, which are computed in parallel. The result is an
+ * AnArrayList, or a MyList with a chunk for each part if the list is big.
+ *
+ * @param <T> The element type.
+ */
+@SuppressWarnings("unchecked")
+public class GeneratedList<T> implements AList<T> {
+    /*
+     * the number of elements computed together by a memoized list
+     */
+    private static final int MEMO_CHUNK_SIZE = 1 << 12;
+    /*
+     * the smallest part computed by a single task in map and filter
+     */
+    private static final long MIN_PART_SIZE = 1 << 12;
+
+    private final LongFunction<T> generator;
+    private final long from; //inclusive
+    private final long to; //exclusive
+    private final boolean reversed;
+
+    private GeneratedList(LongFunction<T> generator, long from, long to, boolean reversed) {
+        assert from < to;
+
+        this.generator = generator;
+        this.from = from;
+        this.to = to;
+        this.reversed = reversed;
+    }
+
+    @Override
+    public T head() {
+        return get(0);
+    }
+
+    @Override
+    public AList<T> tail() {
+        return slice(1, size());
+    }
+
+    @Override
+    public long size() {
+        return to - from;
+    }
+
+    @Override
+    public GeneratedList<T> reverse() {
+        return new GeneratedList<>(generator, from, to, !reversed);
+    }
+
+    /**
+     * Get the elements from the logical range, i.e. the range is reversed together with the list.
+     * No elements are computed.
+     *
+     * @param fromIndex Index of the first element, inclusive.
+     * @param toIndex Index of the last element, exclusive.
+     * @return A list of the elements in the range, the empty list if the range is empty.
+     * @throws IndexOutOfBoundsException If the range is not within the list.
+     */
+    public AList<T> slice(long fromIndex, long toIndex) {
+        if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("from = " + fromIndex + ", to = " + toIndex);
+        }
+        if (fromIndex == toIndex) return AList.empty();
+        if (reversed) return new GeneratedList<>(generator, to - toIndex, to - fromIndex, true);
+        return new GeneratedList<>(generator, from + fromIndex, from + toIndex, false);
+    }
+
+    @Override
+    public AList<T> limit(long maxSize) {
+        return maxSize >= size() ? this : slice(0, Math.max(maxSize, 0));
+    }
+
+    /**
+     * Get a list of the same elements, that keeps the elements once they are computed.
+     * The elements are computed in parts of a few thousand, when an element of the part is first needed. Only the
+     * parts that were computed are kept, so a memoized list can be much bigger than the memory.
+     *
+     * @return The memoized list, sharing the computed elements with the lists derived from it (tail, slice...).
+     */
+    public GeneratedList<T> memoize() {
+        if (generator instanceof Memo) return this;
+        return new GeneratedList<>(new Memo<>(generator, from, to), from, to, reversed);
+    }
+
+    @Override
+    public <R> AList<R> map(Function<? super T, ? extends R> function) {
+        return collectParts(part -> part.foldLeft(new AnArrayList.Builder<R>((int) part.size()),
+                                                  (builder, x) -> builder.add(function.apply(x))).build());
+    }
+
+    @Override
+    public AList<T> filter(Predicate<? super T> predicate) {
+        return collectParts(part -> part.foldLeft(new AnArrayList.Builder<T>(),
+                                                  (builder, x) -> predicate.test(x) ? builder.add(x) : builder).build());
+    }
+
+    @Override
+    public <A> A foldLeft(A initial, BiFunction<? super A, ? super T, ? extends A> function) {
+        A accumulator = initial;
+        for (long i = 0; i < size(); i++) {
+            accumulator = function.apply(accumulator, get(i));
+        }
+        return accumulator;
+    }
+
+    @Override
+    public <A> A foldLeftWhile(A initial, BiFunction<? super A, ? super T, ? extends A> function,
+                               Predicate<? super A> condition) {
+        A accumulator = initial;
+        for (long i = 0; i < size() && condition.test(accumulator); i++) {
+            accumulator = function.apply(accumulator, get(i));
+        }
+        return accumulator;
+    }
+
+    @Override
+    public long indexOf(Predicate<? super T> predicate) {
+        for (long i = 0; i < size(); i++) {
+            if (predicate.test(get(i))) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @return A random access view, computing the elements when they are read.
+     */
+    @Override
+    public List<T> asJavaList() {
+        return new JavaList<>(this);
+    }
+
+    /**
+     * Lists using the same generator for the same range are equal without computing the elements.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof GeneratedList) {
+            GeneratedList<?> list = (GeneratedList<?>) other;
+            if (list.generator == generator && list.from == from && list.to == to && list.reversed == reversed) return true;
+        }
+        return AList.contentEquals(this, other);
+    }
+
+    /**
+     * @return The hash code of the elements, which are generated again, like for any other operation.
+     */
+    @Override
+    public int hashCode() {
+        return AList.contentHash(this);
+    }
+
+    @Override
+    public String toString() {
+        return asString();
+    }
+
+    @Override
+    public AList.Factory factory() {
+        return AnArrayList::create;
+    }
+
+    @Override
+    public <R> AList.Builder<R> builder() {
+        return new AnArrayList.Builder<>();
+    }
+
+    /**
+     * @param index The logical index, taking reversal into account.
+     * @return The computed element.
+     */
+    private T get(long index) {
+        return generator.apply(reversed ? to - 1 - index : from + index);
+    }
+
+    /**
+     * Apply a function to the parts of the list in parallel.
+     *
+     * @return The single non-empty result, or a MyList of all the non-empty results.
+     */
+    private <R> AList<R> collectParts(Function<GeneratedList<T>, AList<R>> function) {
+        List<AList<R>> results = parts().map(function).filter(part -> !part.isEmpty()).collect(Collectors.toList());
+        return results.size() == 1 ? results.get(0) : MyList.ofChunks(results, MyList.DEFAULT_CHUNK_SIZE);
+    }
+
+    private Stream<GeneratedList<T>> parts() {
+        long tasks = 4L * ForkJoinPool.getCommonPoolParallelism();
+        long partSize = Math.min(MyList.DEFAULT_CHUNK_SIZE, Math.max(MIN_PART_SIZE, (size() + tasks - 1) / tasks));
+        return LongStream.range(0, (size() + partSize - 1) / partSize).parallel()
+                         .mapToObj(part -> (GeneratedList<T>) slice(part * partSize, Math.min(size(), (part + 1) * partSize)));
+    }
+
+    /**
+     * @param from The first element, inclusive.
+     * @param to The last element, exclusive.
+     * @param step The difference between two consecutive elements, negative for a descending range.
+     * @return The list of the integers in the range, the empty list if there are none.
+     * @throws IllegalArgumentException If the step is 0.
+     */
+    public static AList<Integer> range(int from, int to, int step) {
+        long size = rangeSize(from, to, step);
+        if (size == 0) return AList.empty();
+        return new GeneratedList<>(index -> (int) (from + index * step), 0, size, false);
+    }
+
+    /**
+     * @param from The first element, inclusive.
+     * @param to The last element, exclusive.
+     * @param step The difference between two consecutive elements, negative for a descending range.
+     * @return The list of the longs in the range, the empty list if there are none.
+     * @throws IllegalArgumentException If the step is 0, or the range has more than Long.MAX_VALUE elements.
+     */
+    public static AList<Long> range(long from, long to, long step) {
+        long size = rangeSize(from, to, step);
+        if (size == 0) return AList.empty();
+        return new GeneratedList<>(index -> from + index * step, 0, size, false);
+    }
+
+    /**
+     * The distance between the bounds and the step are unsigned, as they may not fit in a long. The elements
+     * themselves are computed with overflowing arithmetic, which gives the right result as they are in the range.
+     */
+    private static long rangeSize(long from, long to, long step) {
+        if (step == 0) throw new IllegalArgumentException("step = 0");
+        if (step > 0 ? from >= to : from <= to) return 0;
+        long distance = step > 0 ? to - from : from - to;
+        long steps = Long.divideUnsigned(distance - 1, step > 0 ? step : -step);
+        if (steps < 0 || steps == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many elements: from = " + from + ", to = " + to + ", step = " + step);
+        }
+        return steps + 1;
+    }
+
+    /**
+     * @param size The number of elements.
+     * @param generator Function computing the element from its index, it should have no side effects as it can be
+     *                  called any number of times for the same index, from any thread.
+     * @param <T> The element type.
+     * @return The list of generated elements, the empty list if the size is 0.
+     */
+    public static <T> AList<T> generate(long size, LongFunction<T> generator) {
+        if (size < 0) throw new IllegalArgumentException("size = " + size);
+        if (size == 0) return AList.empty();
+        return new GeneratedList<>(generator, 0, size, false);
+    }
+
+    /**
+     * As each element is computed from the previous one, the list is always memoized, and getting an element
+     * computes all the elements before it, if they were not computed yet.
+     *
+     * @param seed The first element.
+     * @param function Function computing the next element from the previous one.
+     * @param size The number of elements.
+     * @param <T> The element type.
+     * @return The list of the seed and the elements computed from it, the empty list if the size is 0.
+     */
+    public static <T> AList<T> iterate(T seed, UnaryOperator<T> function, long size) {
+        if (size < 0) throw new IllegalArgumentException("size = " + size);
+        if (size == 0) return AList.empty();
+        return new GeneratedList<>(new Iterated<>(seed, function, size), 0, size, false);
+    }
+
+    /**
+     * Keeps the generated elements of a range of indexes, in chunks that are computed when first needed. Only the
+     * computed chunks are stored, by their position in the range.
+     * Chunks computed by concurrent threads may be computed more than once.
+     */
+    private static class Memo<T> implements LongFunction<T> {
+        final Map<Long, Object[]> chunks = new ConcurrentHashMap<>();
+        final long from; //inclusive
+        final long size;
+        private final LongFunction<T> generator;
+
+        Memo(LongFunction<T> generator, long from, long to) {
+            this.generator = generator;
+            this.from = from;
+            this.size = to - from;
+        }
+
+        @Override
+        public T apply(long index) {
+            long offset = index - from;
+            long chunk = offset / MEMO_CHUNK_SIZE;
+            Object[] elements = chunks.get(chunk);
+            if (elements == null) {
+                elements = compute(chunk);
+            }
+            return (T) elements[(int) (offset % MEMO_CHUNK_SIZE)];
+        }
+
+        Object[] compute(long chunk) {
+            long start = chunk * MEMO_CHUNK_SIZE;
+            Object[] elements = new Object[(int) Math.min(MEMO_CHUNK_SIZE, size - start)];
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = generator.apply(from + start + i);
+            }
+            Object[] computed = chunks.putIfAbsent(chunk, elements);
+            return computed == null ? elements : computed;
+        }
+    }
+
+    /**
+     * Computes the chunks in order, each one starting from the element after the last one of the chunk before it.
+     */
+    private static final class Iterated<T> extends Memo<T> {
+        private final UnaryOperator<T> function;
+        private T next;
+        private long computed;
+
+        Iterated(T seed, UnaryOperator<T> function, long size) {
+            super(null, 0, size);
+            this.function = function;
+            this.next = seed;
+        }
+
+        @Override
+        synchronized Object[] compute(long chunk) {
+            while (computed <= chunk) {
+                long start = computed * MEMO_CHUNK_SIZE;
+                Object[] elements = new Object[(int) Math.min(MEMO_CHUNK_SIZE, size - start)];
+                for (int i = 0; i < elements.length; i++) {
+                    elements[i] = next;
+                    if (start + i + 1 < size) next = function.apply(next);
+                }
+                chunks.put(computed++, elements);
+            }
+            return chunks.get(chunk);
+        }
+    }
+
+    /**
+     * The java.util.List view of the list.
+     */
+    private static final class JavaList<T> extends AbstractList<T> implements RandomAccess {
+        private final GeneratedList<T> list;
+        private final int size;
+
+        JavaList(GeneratedList<T> list) {
+            this.list = list;
+            this.size = (int) Math.min(list.size(), Integer.MAX_VALUE);
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException("index = " + index);
+            return list.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package nts;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Hash based operations over a list split into parts (e.g. the chunks of a MyList).
+ * Each part is aggregated separately, in parallel if the stream of parts is parallel, and the partial results are
+ * merged in the order of the parts.
+ */
+final class Grouping {
+
+    private Grouping() {
+    }
+
+    /**
+     * Each part is deduplicated, then the index of the first part holding an element is merged into a concurrent
+     * map, so the parts are merged in parallel too. Each part keeps the elements it holds first.
+     *
+     * @param parts The consecutive parts of the list.
+     * @param concat Creates a list of the elements of consecutive lists.
+     */
+    static <T> AList<T> distinct(Stream<AList<T>> parts, Function<List<AList<T>>, AList<T>> concat) {
+        boolean parallel = parts.isParallel();
+        List<AList<T>> distinctParts = parts.map(AList::distinct).collect(Collectors.toList());
+        Map<Object, Integer> firstPart = new ConcurrentHashMap<>();
+        indexes(distinctParts.size(), parallel).forEach(i -> distinctParts.get(i).foldLeft(firstPart, (map, x) -> {
+            map.merge(key(x), i, Math::min);
+            return map;
+        }));
+        List<AList<T>> result = indexes(distinctParts.size(), parallel)
+                .mapToObj(i -> distinctParts.get(i).filter(x -> firstPart.get(key(x)) == i))
+                .collect(Collectors.toList());
+        return concat.apply(result);
+    }
+
+    private static IntStream indexes(int size, boolean parallel) {
+        IntStream indexes = IntStream.range(0, size);
+        return parallel ? indexes.parallel() : indexes;
+    }
+
+    static <T, K> Map<K, AList<T>> groupBy(Stream<AList<T>> parts, Function<? super T, ? extends K> key,
+                                           Function<List<AList<T>>, AList<T>> concat) {
+        List<Map<K, AList<T>>> partialGroups = parts.map(part -> part.<K>groupBy(key)).collect(Collectors.toList());
+        return merge(partialGroups, concat);
+    }
+
+    static <T, K> Map<K, Long> countBy(Stream<AList<T>> parts, Function<? super T, ? extends K> key) {
+        List<Map<K, Long>> partialCounts = parts.map(part -> part.<K>countBy(key)).collect(Collectors.toList());
+        Map<K, Long> result = new LinkedHashMap<>();
+        for (Map<K, Long> counts : partialCounts) {
+            counts.forEach((k, count) -> result.merge(k, count, Long::sum));
+        }
+        return result;
+    }
+
+    static <T> Map<Boolean, AList<T>> partition(Stream<AList<T>> parts, Predicate<? super T> predicate,
+                                                Function<List<AList<T>>, AList<T>> concat) {
+        List<Map<Boolean, AList<T>>> partials = parts.map(part -> part.partition(predicate)).collect(Collectors.toList());
+        Map<Boolean, AList<T>> result = new HashMap<>(merge(partials, concat));
+        result.putIfAbsent(true, AList.empty());
+        result.putIfAbsent(false, AList.empty());
+        return result;
+    }
+
+    private static <T, K> Map<K, AList<T>> merge(List<Map<K, AList<T>>> partialGroups,
+                                                 Function<List<AList<T>>, AList<T>> concat) {
+        Map<K, List<AList<T>>> merged = new LinkedHashMap<>();
+        for (Map<K, AList<T>> groups : partialGroups) {
+            groups.forEach((k, group) -> merged.computeIfAbsent(k, x -> new ArrayList<>()).add(group));
+        }
+        Map<K, AList<T>> result = new LinkedHashMap<>();
+        merged.forEach((k, groups) -> result.put(k, concat.apply(groups)));
+        return result;
+    }
+
+    private static Object key(Object element) {
+        return element == null ? NULL : element;
+    }
+
+    /*
+     * stands for null in the concurrent maps, which don't take null keys
+     */
+    private static final Object NULL = new Object();
+}
@@ -0,0 +1,15 @@
+package nts;
+
+/**
+ * A list that keeps the summary of its elements once it is computed, so chunks of this type are only summarised once
+ * by the range operations of MyList (see {@link ChunkStats}).
+ *
+ * @param <T> The element type.
+ */
+interface HasStats<T> {
+    /**
+     * @return The summary of the elements, computed the first time it is needed.
+     * @throws ClassCastException If the elements are not Comparable.
+     */
+    ChunkStats<T> stats();
+}
@@ -0,0 +1,131 @@
+package nts;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A list or value derived from a MyList, that is kept up to date as the MyList grows.
+ * <br/>
+ * The result is computed for each chunk and combined. As chunks are immutable, the result for a chunk is kept and
+ * reused for as long as the chunk is part of the source list, so refreshing the view only processes the chunks that
+ * were added (e.g. with {@link MyList#concat(AList)} or a {@link ConcurrentBuilder} snapshot). Chunks are compared by
+ * identity, so a chunk that was copied (e.g. by reversing the list) is processed again.
+ * <br/>
+ * Any list that is not a MyList is treated as a single chunk.
+ *
+ * @param <T> The element type of the source list.
+ * @param <R> The type of the result.
+ */
+public final class IncrementalView<T, R> {
+    private final Chunked<T, ?, R> chunked;
+
+    private IncrementalView(Chunked<T, ?, R> chunked) {
+        this.chunked = chunked;
+    }
+
+    /**
+     * Get the result for the current state of the source list. The chunks that were not seen before are processed
+     * in parallel, the results of chunks no longer in the list are forgotten.
+     *
+     * @param source The source list.
+     * @return The result for all the elements of the source.
+     */
+    public R refresh(AList<T> source) {
+        return chunked.refresh(source);
+    }
+
+    /**
+     * @param perChunk Computes the result for a single chunk.
+     * @param combiner Combines the results of the chunks, given in the order of the chunks.
+     * @param <T> The element type of the source list.
+     * @param <C> The type of the result for a chunk.
+     * @param <R> The type of the result.
+     * @return A view computing the result for each chunk.
+     */
+    public static <T, C, R> IncrementalView<T, R> of(Function<? super AList<T>, ? extends C> perChunk,
+                                                     Function<? super List<C>, ? extends R> combiner) {
+        return new IncrementalView<>(new Chunked<T, C, R>(perChunk, (results, source) -> combiner.apply(results)));
+    }
+
+    /**
+     * @param function A mapping function from the type of the source list to the type of the new list.
+     * @return A view of the mapped list, sharing the mapped chunks between refreshes. It has the chunk size of the
+     *         source list.
+     */
+    public static <T, R> IncrementalView<T, AList<R>> map(Function<? super T, ? extends R> function) {
+        return new IncrementalView<>(new Chunked<>(chunk -> chunk.<R>map(function), IncrementalView::concat));
+    }
+
+    /**
+     * @param predicate Function to test each element.
+     * @return A view of the filtered list, sharing the filtered chunks between refreshes. It has the chunk size of
+     *         the source list.
+     */
+    public static <T> IncrementalView<T, AList<T>> filter(Predicate<? super T> predicate) {
+        return new IncrementalView<>(new Chunked<>(chunk -> chunk.filter(predicate), IncrementalView::concat));
+    }
+
+    /**
+     * Each chunk is folded separately, starting from the identity, and the results are combined in order.
+     * So the combiner must be associative and the identity must be an identity for the combiner.
+     *
+     * @param identity The initial value of the accumulator for each chunk.
+     * @param function A function accepting the current accumulator value and list element,
+     *                 returning the next value of the accumulator.
+     * @param combiner Combines the accumulated values of two consecutive parts of the list.
+     * @param <A> The type of the accumulated value.
+     * @return A view of the accumulated value, that only folds the new chunks.
+     */
+    public static <T, A> IncrementalView<T, A> fold(A identity, BiFunction<? super A, ? super T, ? extends A> function,
+                                                 BinaryOperator<A> combiner) {
+        return of(chunk -> chunk.<A>foldLeft(identity, function),
+                  results -> results.stream().reduce(identity, combiner));
+    }
+
+    private static <R> AList<R> concat(List<AList<R>> chunks, AList<?> source) {
+        int chunkSize = source instanceof MyList ? ((MyList<?>) source).chunkSize() : MyList.DEFAULT_CHUNK_SIZE;
+        return MyList.ofChunks(chunks.stream().filter(chunk -> !chunk.isEmpty()).collect(Collectors.toList()),
+                               chunkSize);
+    }
+
+    /**
+     * Holds the results of the chunks seen in the last refresh. The combiner also gets the source list.
+     */
+    private static final class Chunked<T, C, R> {
+        private final Function<? super AList<T>, ? extends C> perChunk;
+        private final BiFunction<? super List<C>, ? super AList<T>, ? extends R> combiner;
+        private Map<AList<T>, C> results = new IdentityHashMap<>();
+
+        Chunked(Function<? super AList<T>, ? extends C> perChunk,
+                BiFunction<? super List<C>, ? super AList<T>, ? extends R> combiner) {
+            this.perChunk = perChunk;
+            this.combiner = combiner;
+        }
+
+        synchronized R refresh(AList<T> source) {
+            List<AList<T>> chunks = chunks(source).collect(Collectors.toList());
+            Map<AList<T>, C> previous = results;
+            List<C> chunkResults = chunks.parallelStream()
+                    .map(chunk -> previous.containsKey(chunk) ? previous.get(chunk) : perChunk.apply(chunk))
+                    .collect(Collectors.toList());
+            Map<AList<T>, C> current = new IdentityHashMap<>();
+            for (int i = 0; i < chunks.size(); i++) {
+                current.put(chunks.get(i), chunkResults.get(i));
+            }
+            results = current;
+            return combiner.apply(chunkResults, source);
+        }
+
+        private static <T> Stream<AList<T>> chunks(AList<T> source) {
+            if (source instanceof MyList) return ((MyList<T>) source).chunkStream();
+            return source.isEmpty() ? Stream.empty() : Stream.of(source);
+        }
+    }
+}
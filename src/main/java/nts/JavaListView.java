@@ -0,0 +1,56 @@
+package nts;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A read-only java.util.List view of any AList, used by the default {@link AList#asJavaList()}.
+ * Iterating goes through the tails of the list, but getting an element by index has to walk the list up to it.
+ *
+ * @param <T> The element type.
+ */
+final class JavaListView<T> extends AbstractList<T> {
+    private final AList<T> list;
+    private final int size;
+
+    JavaListView(AList<T> list) {
+        this.list = list;
+        this.size = (int) Math.min(list.size(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("index = " + index);
+        AList<T> rest = list;
+        for (int i = 0; i < index; i++) {
+            rest = rest.tail();
+        }
+        return rest.head();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private AList<T> rest = list;
+
+            @Override
+            public boolean hasNext() {
+                return !rest.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (rest.isEmpty()) throw new NoSuchElementException();
+                T head = rest.head();
+                rest = rest.tail();
+                return head;
+            }
+        };
+    }
+}
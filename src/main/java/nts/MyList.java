@@ -1,12 +1,36 @@
 package nts;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.SortedMap;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * AList implementation, that is composed of chunks or sub-lists.
+ * <br/>
+ * Operations that process the chunks independently (map, filter, flatMap, prefixScan, findAny, anyMatch and the
+ * grouping operations) run over the chunks in parallel, if the {@link ExecutionPolicy} of the list says so, by default
+ * the {@link ExecutionPolicy#parallel()} policy. Lists with paged chunks are mapped and filtered in order, prefetching
+ * the next chunk, so the policy of the chunks decides if each chunk is processed in parallel. Lists derived from a list
+ * have the same policy.
  *
  * @param <T> The element type.
  */
@@ -18,16 +42,23 @@ public class MyList<T> implements AList<T> {
 
     private final AList<AList<T>> chunks;
     private final int chunkSize;
+    private final ExecutionPolicy policy;
+    private volatile int hash; //0 until computed
 
     private MyList(AList<AList<T>> chunks) {
         this(chunks, DEFAULT_CHUNK_SIZE);
     }
 
     private MyList(AList<AList<T>> chunks, int chunkSize) {
+        this(chunks, chunkSize, ExecutionPolicy.parallel());
+    }
+
+    private MyList(AList<AList<T>> chunks, int chunkSize, ExecutionPolicy policy) {
         assert !chunks.isEmpty();
 
         this.chunks = chunks;
         this.chunkSize = chunkSize;
+        this.policy = policy;
     }
 
     @Override
@@ -43,32 +74,488 @@ public class MyList<T> implements AList<T> {
             if (chunks.tail().isEmpty()) {
                 return AList.empty();
             }
-            return new MyList<>(chunks.tail());
+            return new MyList<>(chunks.tail(), chunkSize, policy);
         }
-        return new MyList<>(AnArrayList.create(headChunkTail, chunks.tail()));
+        return new MyList<>(AnArrayList.create(headChunkTail, chunks.tail()), chunkSize, policy);
     }
 
     @Override
     public MyList<T> reverse() {
         AList<AList<T>> reversedChunks = chunks.map(AList::reverse).reverse();
-        return new MyList<>(reversedChunks);
+        return new MyList<>(reversedChunks, chunkSize, policy);
     }
 
     @Override
     public AList<T> filter(Predicate<? super T> predicate) {
-        AList<AList<T>> filteredChunks = chunks.map(chunk -> chunk.filter(predicate)).filter(chunks -> !chunks.isEmpty());
-        return filteredChunks.isEmpty()? AList.empty() : new MyList<>(filteredChunks);
+        List<AList<T>> filteredChunks = mapChunks(chunk -> chunk.filter(predicate));
+        filteredChunks.removeIf(AList::isEmpty);
+        return ofChunks(filteredChunks, chunkSize, policy);
     }
 
     @Override
     public <R> MyList<R> map(Function<? super T, ? extends R> function) {
-        AList<AList<R>> mappedChunks = chunks.map(chunk -> chunk.map(function));
-        return new MyList<>(mappedChunks);
+        return (MyList<R>) ofChunks(mapChunks(chunk -> chunk.<R>map(function)), chunkSize, policy);
+    }
+
+    /**
+     * Apply a function to each chunk, in parallel if the policy says so. If any chunk is paged, the chunks are
+     * processed in order, and before a chunk is processed, the next one is prefetched (see {@link PagedChunk}).
+     */
+    private <R> List<AList<R>> mapChunks(Function<? super AList<T>, ? extends AList<R>> function) {
+        if (!chunks.anyMatch(chunk -> chunk instanceof PagedChunk)) {
+            return policy.execute(size(), parallel -> chunkStream(parallel).map(function).collect(Collectors.toList()));
+        }
+        List<AList<R>> mapped = new ArrayList<>();
+        for (AList<AList<T>> list = chunks; !list.isEmpty(); list = list.tail()) {
+            prefetch(list.tail());
+            mapped.add(function.apply(list.head()));
+        }
+        return mapped;
+    }
+
+    private static void prefetch(AList<? extends AList<?>> chunks) {
+        if (chunks.head() instanceof PagedChunk) {
+            ((PagedChunk<?>) chunks.head()).prefetch();
+        }
+    }
+
+    /**
+     * The chunks are flat-mapped in parallel, if the policy says so. Mapped lists that are big enough (at least half the chunk size) and are
+     * either MyList or AnArrayList instances, become chunks of the result list without copying. The elements of
+     * smaller mapped lists are packed together into new chunks.
+     * <br/>
+     * Chunks that are spliced in may be only half full, and a packed chunk is cut short before each of them (and at
+     * the end of each source chunk). So there is at most one short packed chunk per spliced chunk of at least half
+     * the chunk size, and the result has at most about four times as many chunks as needed, plus one per source
+     * chunk. That bounds the per chunk overhead of the later operations, while the bigger mapped lists are never
+     * copied.
+     */
+    @Override
+    public <R> AList<R> flatMap(Function<? super T, ? extends AList<R>> function) {
+        List<AList<R>> flattened = policy.execute(size(), parallel -> chunkStream(parallel)
+                .map(chunk -> chunk.foldLeft(new Builder<R>(chunkSize), (builder, x) -> builder.addAll(function.apply(x))).chunks())
+                .flatMap(List::stream)
+                .collect(Collectors.toList()));
+        return ofChunks(flattened, chunkSize, policy);
     }
 
     @Override
     public <A> A foldLeft(A initial, BiFunction<? super A, ? super T, ? extends A> function) {
-        return chunks.foldLeft(initial, (a, chunk) -> chunk.foldLeft(a, function));
+        A accumulator = initial;
+        for (AList<AList<T>> list = chunks; !list.isEmpty(); list = list.tail()) {
+            prefetch(list.tail());
+            accumulator = list.head().foldLeft(accumulator, function);
+        }
+        return accumulator;
+    }
+
+    /**
+     * Each chunk is scanned into a new chunk, starting from the last value of the chunk before it.
+     */
+    @Override
+    public <A> AList<A> scanLeft(A initial, BiFunction<? super A, ? super T, ? extends A> function) {
+        List<AList<A>> scanned = new ArrayList<>();
+        A accumulator = initial;
+        for (AList<AList<T>> list = chunks; !list.isEmpty(); list = list.tail()) {
+            AList<A> scannedChunk = list.head().scanLeft(accumulator, function);
+            accumulator = scannedChunk.reverse().head();
+            scanned.add(scanned.isEmpty() ? scannedChunk : scannedChunk.tail());
+        }
+        return ofChunks(scanned, chunkSize, policy);
+    }
+
+    /**
+     * The scan is done in two passes over the chunks, which are parallel if the policy says so. The first reduces each
+     * chunk and the reduced values give the starting value of each chunk. The second scans each chunk into a new chunk,
+     * from its starting value.
+     */
+    @Override
+    public AList<T> prefixScan(T initial, BinaryOperator<T> operator) {
+        return policy.execute(size(), parallel -> prefixScan(initial, operator, parallel));
+    }
+
+    private AList<T> prefixScan(T initial, BinaryOperator<T> operator, boolean parallel) {
+        List<AList<T>> chunkList = chunkStream().collect(Collectors.toList());
+        List<T> reduced = (parallel ? chunkList.parallelStream() : chunkList.stream())
+                .map(chunk -> chunk.tail().foldLeft(chunk.head(), operator))
+                .collect(Collectors.toList());
+        List<T> starts = new ArrayList<>(chunkList.size());
+        T accumulator = initial;
+        for (T chunkValue : reduced) {
+            starts.add(accumulator);
+            accumulator = operator.apply(accumulator, chunkValue);
+        }
+        IntStream indexes = IntStream.range(0, chunkList.size());
+        List<AList<T>> scanned = (parallel ? indexes.parallel() : indexes)
+                .mapToObj(i -> {
+                    AList<T> scannedChunk = chunkList.get(i).prefixScan(starts.get(i), operator);
+                    return i == 0 ? scannedChunk : scannedChunk.tail();
+                })
+                .collect(Collectors.toList());
+        return ofChunks(scanned, chunkSize, policy);
+    }
+
+    @Override
+    public <A> A foldLeftWhile(A initial, BiFunction<? super A, ? super T, ? extends A> function,
+                               Predicate<? super A> condition) {
+        return chunks.foldLeftWhile(initial, (a, chunk) -> chunk.foldLeftWhile(a, function, condition), condition);
+    }
+
+    @Override
+    public long indexOf(Predicate<? super T> predicate) {
+        long offset = 0;
+        for (AList<AList<T>> list = chunks; !list.isEmpty(); list = list.tail()) {
+            long index = list.head().indexOf(predicate);
+            if (index >= 0) return offset + index;
+            offset += list.head().size();
+        }
+        return -1;
+    }
+
+    @Override
+    public Optional<T> find(Predicate<? super T> predicate) {
+        for (AList<AList<T>> list = chunks; !list.isEmpty(); list = list.tail()) {
+            Optional<T> found = list.head().find(predicate);
+            if (found.isPresent()) return found;
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * If the policy says so, the chunks are searched in parallel. Once a match is found, the chunks being searched
+     * stop and the remaining chunks are not searched.
+     */
+    @Override
+    public Optional<T> findAny(Predicate<? super T> predicate) {
+        return policy.execute(size(), parallel -> parallel ? findAnyInParallel(predicate) : find(predicate));
+    }
+
+    private Optional<T> findAnyInParallel(Predicate<? super T> predicate) {
+        AtomicBoolean found = new AtomicBoolean();
+        return chunkStream().parallel()
+                .map(chunk -> {
+                    Optional<T> match = chunk.foldLeftWhile(Optional.<T>empty(),
+                            (a, x) -> predicate.test(x) ? Optional.of(x) : a,
+                            a -> !a.isPresent() && !found.get());
+                    if (match.isPresent()) found.set(true);
+                    return match;
+                })
+                .filter(Optional::isPresent)
+                .findAny()
+                .flatMap(Function.identity());
+    }
+
+    /**
+     * If the policy says so, the chunks are searched in parallel. Once a match is found, the chunks being searched
+     * stop and the remaining chunks are not searched.
+     */
+    @Override
+    public boolean anyMatch(Predicate<? super T> predicate) {
+        return policy.execute(size(), parallel -> parallel ? anyMatchInParallel(predicate) : indexOf(predicate) >= 0);
+    }
+
+    private boolean anyMatchInParallel(Predicate<? super T> predicate) {
+        AtomicBoolean found = new AtomicBoolean();
+        return chunkStream().parallel().anyMatch(chunk -> {
+            boolean match = chunk.foldLeftWhile(false, (a, x) -> predicate.test(x), a -> !a && !found.get());
+            if (match) found.set(true);
+            return match;
+        });
+    }
+
+    /**
+     * Only the last chunk of the result is a new list, the chunks before it are shared with this list.
+     */
+    @Override
+    public AList<T> takeWhile(Predicate<? super T> predicate) {
+        AnArrayList.Builder<AList<T>> taken = new AnArrayList.Builder<>();
+        for (AList<AList<T>> list = chunks; !list.isEmpty(); list = list.tail()) {
+            long index = list.head().indexOf(x -> !predicate.test(x));
+            if (index < 0) {
+                taken.add(list.head());
+            } else {
+                if (index > 0) taken.add(list.head().limit(index));
+                break;
+            }
+        }
+        return taken.size() == 0 ? AList.empty() : new MyList<>(taken.build(), chunkSize, policy);
+    }
+
+    /**
+     * Only the first chunk of the result is a new list, the chunks after it are shared with this list.
+     * Each chunk drops its own matching prefix, so the predicate is tested once per dropped element.
+     */
+    @Override
+    public AList<T> dropWhile(Predicate<? super T> predicate) {
+        for (AList<AList<T>> list = chunks; !list.isEmpty(); list = list.tail()) {
+            AList<T> rest = list.head().dropWhile(predicate);
+            if (!rest.isEmpty()) return new MyList<>(AnArrayList.create(rest, list.tail()), chunkSize, policy);
+        }
+        return AList.empty();
+    }
+
+    /**
+     * Only the last chunk of the result is a new list, the chunks before it are shared with this list.
+     */
+    @Override
+    public AList<T> limit(long maxSize) {
+        AnArrayList.Builder<AList<T>> taken = new AnArrayList.Builder<>();
+        long remaining = maxSize;
+        for (AList<AList<T>> list = chunks; !list.isEmpty() && remaining > 0; list = list.tail()) {
+            AList<T> chunk = list.head();
+            taken.add(chunk.size() <= remaining ? chunk : chunk.limit(remaining));
+            remaining -= chunk.size();
+        }
+        return taken.size() == 0 ? AList.empty() : new MyList<>(taken.build(), chunkSize, policy);
+    }
+
+    /**
+     * Duplicates are removed from each chunk (in parallel if the policy says so), then across the chunks in order.
+     */
+    @Override
+    public AList<T> distinct() {
+        return policy.execute(size(), parallel -> Grouping.distinct(chunkStream(parallel), this::concatChunks));
+    }
+
+    /**
+     * The chunks are grouped in parallel, if the policy says so. The groups of the chunks are the chunks of the
+     * resulting groups.
+     */
+    @Override
+    public <K> Map<K, AList<T>> groupBy(Function<? super T, ? extends K> key) {
+        return policy.execute(size(), parallel -> Grouping.groupBy(chunkStream(parallel), key, this::concatChunks));
+    }
+
+    /**
+     * The chunks are counted in parallel if the policy says so, and the counts added.
+     */
+    @Override
+    public <K> Map<K, Long> countBy(Function<? super T, ? extends K> key) {
+        return policy.execute(size(), parallel -> Grouping.countBy(chunkStream(parallel), key));
+    }
+
+    /**
+     * The chunks are split in parallel, if the policy says so. The parts of the chunks are the chunks of the resulting
+     * lists.
+     */
+    @Override
+    public Map<Boolean, AList<T>> partition(Predicate<? super T> predicate) {
+        return policy.execute(size(), parallel -> Grouping.partition(chunkStream(parallel), predicate, this::concatChunks));
+    }
+
+    private AList<T> concatChunks(List<AList<T>> lists) {
+        return ofChunks(lists.stream().filter(list -> !list.isEmpty()).collect(Collectors.toList()), chunkSize, policy);
+    }
+
+    /**
+     * Get the elements in the range [from, to], by their natural ordering. Null elements are never in the range.
+     * <br/>
+     * The chunks are skipped if their smallest and biggest elements show that no element can be in the range, and
+     * are added to the result unchanged if all their elements are in the range (see {@link ChunkStats}).
+     * Only the other chunks are filtered. Only the chunks that keep their summary (see {@link HasStats}) are
+     * summarised, once, other chunks (e.g. generated chunks, which may be too big to summarise) are always filtered.
+     *
+     * @param from The lower bound, inclusive.
+     * @param to The upper bound, inclusive.
+     * @return A list of the elements in the range, in the same order.
+     * @throws ClassCastException If the elements are not Comparable.
+     */
+    public AList<T> filterBetween(T from, T to) {
+        List<AList<T>> filtered = new ArrayList<>();
+        for (AList<AList<T>> list = chunks; !list.isEmpty(); list = list.tail()) {
+            AList<T> chunk = list.head();
+            ChunkStats<T> stats = stats(chunk);
+            if (stats != null && stats.within(from, to)) {
+                filtered.add(chunk);
+            } else if (stats == null || !stats.disjoint(from, to)) {
+                AList<T> filteredChunk = chunk.filter(x -> ChunkStats.between(x, from, to));
+                if (!filteredChunk.isEmpty()) filtered.add(filteredChunk);
+            }
+        }
+        return ofChunks(filtered, chunkSize, policy);
+    }
+
+    /**
+     * Count the elements in the range [from, to], by their natural ordering, skipping chunks like
+     * {@link #filterBetween(Object, Object)}.
+     *
+     * @param from The lower bound, inclusive.
+     * @param to The upper bound, inclusive.
+     * @return The number of elements in the range.
+     * @throws ClassCastException If the elements are not Comparable.
+     */
+    public long countBetween(T from, T to) {
+        return chunks.foldLeft(0L, (count, chunk) -> {
+            ChunkStats<T> stats = stats(chunk);
+            if (stats != null && stats.within(from, to)) return count + stats.count();
+            if (stats != null && stats.disjoint(from, to)) return count;
+            return chunk.foldLeft(count, (c, x) -> ChunkStats.between(x, from, to) ? c + 1 : c);
+        });
+    }
+
+    /**
+     * Find the first element in the range [from, to], by their natural ordering, skipping chunks like
+     * {@link #filterBetween(Object, Object)}.
+     *
+     * @param from The lower bound, inclusive.
+     * @param to The upper bound, inclusive.
+     * @return The first element in the range, or an empty Optional if there is none.
+     * @throws ClassCastException If the elements are not Comparable.
+     */
+    public Optional<T> findBetween(T from, T to) {
+        for (AList<AList<T>> list = chunks; !list.isEmpty(); list = list.tail()) {
+            AList<T> chunk = list.head();
+            ChunkStats<T> stats = stats(chunk);
+            if (stats != null && stats.within(from, to)) return Optional.of(chunk.head());
+            if (stats == null || !stats.disjoint(from, to)) {
+                Optional<T> found = chunk.find(x -> ChunkStats.between(x, from, to));
+                if (found.isPresent()) return found;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return The summary of the chunk, null if the chunk doesn't keep it.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> ChunkStats<T> stats(AList<T> chunk) {
+        return chunk instanceof HasStats ? ((HasStats<T>) chunk).stats() : null;
+    }
+
+    /**
+     * Get a list of the elements of this list, followed by the elements of another list.
+     * Only the list of chunks is new, the chunks of this list are shared. If the other list is a MyList, its chunks
+     * are shared too, otherwise it is added as a chunk.
+     *
+     * @param list The elements to add at the end.
+     * @return A MyList of the elements of both lists.
+     */
+    public MyList<T> concat(AList<T> list) {
+        if (list.isEmpty()) return this;
+        List<AList<T>> concatenated = chunkStream().collect(Collectors.toList());
+        if (list instanceof MyList) {
+            ((MyList<T>) list).chunkStream().forEach(concatenated::add);
+        } else {
+            concatenated.add(list);
+        }
+        return (MyList<T>) ofChunks(concatenated, chunkSize, policy);
+    }
+
+    /**
+     * Only the chunk containing the element is copied, the rest are shared.
+     *
+     * @param index The index of the element to replace.
+     * @param value The new element.
+     * @return A copy of this list, with the element at the index replaced.
+     * @throws IndexOutOfBoundsException If there is no element at the index.
+     */
+    public MyList<T> set(long index, T value) {
+        return update(Collections.singletonMap(index, value));
+    }
+
+    /**
+     * Replace any number of elements. Each chunk containing replaced elements is copied once, the rest are shared.
+     *
+     * @param updates The new elements by index.
+     * @return A copy of this list, with the elements at the indexes replaced.
+     * @throws IndexOutOfBoundsException If there is no element at any of the indexes.
+     */
+    public MyList<T> update(Map<Long, ? extends T> updates) {
+        if (updates.isEmpty()) return this;
+        SortedMap<Long, T> sorted = new TreeMap<>(updates);
+        checkIndex(sorted.firstKey(), size());
+        checkIndex(sorted.lastKey(), size());
+        AnArrayList.Builder<AList<T>> result = new AnArrayList.Builder<>();
+        long offset = 0;
+        for (AList<AList<T>> list = chunks; !list.isEmpty(); list = list.tail()) {
+            AList<T> chunk = list.head();
+            long chunkStart = offset;
+            offset += chunk.size();
+            SortedMap<Long, T> chunkUpdates = sorted.subMap(chunkStart, offset);
+            if (chunkUpdates.isEmpty()) {
+                result.add(chunk);
+            } else {
+                Map<Integer, T> localUpdates = new HashMap<>();
+                chunkUpdates.forEach((index, value) -> localUpdates.put((int) (index - chunkStart), value));
+                result.add(arrayChunk(chunk).update(localUpdates));
+            }
+        }
+        return new MyList<>(result.build(), chunkSize, policy);
+    }
+
+    /**
+     * Only the chunk the element is inserted in is copied. If the chunk gets bigger than the chunk size, it is split
+     * in two.
+     *
+     * @param index The index of the inserted element, the elements from this index on are moved by one.
+     * @param value The element to insert.
+     * @return A copy of this list, with the element inserted.
+     * @throws IndexOutOfBoundsException If the index is negative or greater than the size.
+     */
+    public MyList<T> insert(long index, T value) {
+        checkIndex(index, size() + 1);
+        AnArrayList.Builder<AList<T>> result = new AnArrayList.Builder<>();
+        long offset = 0;
+        boolean inserted = false;
+        for (AList<AList<T>> list = chunks; !list.isEmpty(); list = list.tail()) {
+            AList<T> chunk = list.head();
+            long chunkStart = offset;
+            offset += chunk.size();
+            if (inserted || index > offset) {
+                result.add(chunk);
+                continue;
+            }
+            AnArrayList<T> grown = arrayChunk(chunk).insert((int) (index - chunkStart), value);
+            if (grown.size() > chunkSize) {
+                int half = (int) grown.size() / 2;
+                result.add(grown.slice(0, half));
+                result.add(grown.slice(half, (int) grown.size()));
+            } else {
+                result.add(grown);
+            }
+            inserted = true;
+        }
+        return new MyList<>(result.build(), chunkSize, policy);
+    }
+
+    /**
+     * Only the chunk the element is removed from is copied. If it was the only element of the chunk, the chunk is
+     * removed.
+     *
+     * @param index The index of the element to remove.
+     * @return A copy of this list without the element, the empty list if it was the only one.
+     * @throws IndexOutOfBoundsException If there is no element at the index.
+     */
+    public AList<T> remove(long index) {
+        checkIndex(index, size());
+        AnArrayList.Builder<AList<T>> result = new AnArrayList.Builder<>();
+        long offset = 0;
+        boolean removed = false;
+        for (AList<AList<T>> list = chunks; !list.isEmpty(); list = list.tail()) {
+            AList<T> chunk = list.head();
+            long chunkStart = offset;
+            offset += chunk.size();
+            if (removed || index >= offset) {
+                result.add(chunk);
+                continue;
+            }
+            AList<T> shrunk = arrayChunk(chunk).remove((int) (index - chunkStart));
+            if (!shrunk.isEmpty()) {
+                result.add(shrunk);
+            }
+            removed = true;
+        }
+        return result.size() == 0 ? AList.empty() : new MyList<>(result.build(), chunkSize, policy);
+    }
+
+    private static void checkIndex(long index, long size) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("index = " + index);
+    }
+
+    private static <T> AnArrayList<T> arrayChunk(AList<T> chunk) {
+        if (chunk instanceof AnArrayList) return (AnArrayList<T>) chunk;
+        return (AnArrayList<T>) chunk.foldLeft(new AnArrayList.Builder<T>(), AnArrayList.Builder::add).build();
     }
 
     @Override
@@ -76,6 +563,69 @@ public class MyList<T> implements AList<T> {
         return chunks.foldLeft(0L, (size, chunk) -> size + chunk.size());
     }
 
+    /**
+     * When it is first used, the view finds the index of the first element of each chunk, so an element is found with
+     * a binary search over the chunks. The views of the chunks are created when their elements are first read.
+     * The spliterator splits the list at chunk boundaries first.
+     *
+     * @return A view of the elements, which is random access if the chunks are (AnArrayList, paged and generated
+     * chunks).
+     */
+    @Override
+    public List<T> asJavaList() {
+        return chunks.allMatch(MyList::isRandomAccess) ? new RandomAccessJavaList<>(this) : new JavaList<>(this);
+    }
+
+    private static boolean isRandomAccess(AList<?> chunk) {
+        return chunk instanceof AnArrayList || chunk instanceof PagedChunk || chunk instanceof GeneratedList;
+    }
+
+    /**
+     * Lists sharing the same chunks are equal without comparing the elements, and lists with different hash codes
+     * (if they are known) are not equal. If the chunks of both lists have the same sizes, they are compared in pairs
+     * (in parallel if the policy says so), so chunks that share their storage are compared quickly.
+     * Otherwise the elements are compared in order.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof MyList)) return AList.contentEquals(this, other);
+        MyList<?> list = (MyList<?>) other;
+        if ((Object) list.chunks == chunks) return true;
+        if (hash != 0 && list.hash != 0 && hash != list.hash) return false;
+        if (list.size() != size()) return false;
+        List<AList<T>> chunkList = chunks.asJavaList();
+        List<? extends AList<?>> otherChunks = list.chunks.asJavaList();
+        if (!aligned(chunks, list.chunks)) return AList.contentEquals(this, other);
+        return policy.execute(size(), parallel -> {
+            IntStream indexes = IntStream.range(0, chunkList.size());
+            return (parallel ? indexes.parallel() : indexes).allMatch(i -> chunkList.get(i).equals(otherChunks.get(i)));
+        });
+    }
+
+    /**
+     * @return True if both lists of chunks have chunks of the same sizes, in the same order.
+     */
+    private static boolean aligned(AList<? extends AList<?>> chunks, AList<? extends AList<?>> otherChunks) {
+        if (chunks.size() != otherChunks.size()) return false;
+        for (; !chunks.isEmpty(); chunks = chunks.tail(), otherChunks = otherChunks.tail()) {
+            if (chunks.head().size() != otherChunks.head().size()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return The hash code of the elements, computed the first time it is needed and kept.
+     */
+    @Override
+    public int hashCode() {
+        int hash = this.hash;
+        if (hash == 0) {
+            hash = policy.execute(size(), parallel -> AList.contentHash(chunkStream(parallel)));
+            this.hash = hash;
+        }
+        return hash;
+    }
+
     @Override
     public String toString() {
         return asString();
@@ -86,6 +636,288 @@ public class MyList<T> implements AList<T> {
         return MyList::create;
     }
 
+    @Override
+    public <R> AList.Builder<R> builder() {
+        return new Builder<>(chunkSize);
+    }
+
+    int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @param policy The policy of this list and of the lists derived from it.
+     * @return A list sharing this list's chunks, with the policy.
+     */
+    public MyList<T> withPolicy(ExecutionPolicy policy) {
+        return new MyList<>(chunks, chunkSize, policy);
+    }
+
+    public ExecutionPolicy policy() {
+        return policy;
+    }
+
+    /**
+     * @return The chunks of this list, in order.
+     */
+    Stream<AList<T>> chunkStream() {
+        return chunks.foldLeft(Stream.<AList<T>>builder(), Stream.Builder::add).build();
+    }
+
+    private Stream<AList<T>> chunkStream(boolean parallel) {
+        return parallel ? chunkStream().parallel() : chunkStream();
+    }
+
+    /**
+     * @param chunks The non-empty chunks, used as they are.
+     * @param chunkSize The chunk size of the list.
+     * @return A MyList of the chunks, the empty list if there are none.
+     */
+    static <T> AList<T> ofChunks(List<AList<T>> chunks, int chunkSize) {
+        return ofChunks(chunks, chunkSize, ExecutionPolicy.parallel());
+    }
+
+    private static <T> AList<T> ofChunks(List<AList<T>> chunks, int chunkSize, ExecutionPolicy policy) {
+        if (chunks.isEmpty()) return AList.empty();
+        AnArrayList.Builder<AList<T>> builder = new AnArrayList.Builder<>(chunks.size());
+        chunks.forEach(builder::add);
+        return new MyList<>(builder.build(), chunkSize, policy);
+    }
+
+    /**
+     * The java.util.List view of the list.
+     */
+    private static class JavaList<T> extends AbstractList<T> {
+        private final MyList<T> list;
+        private volatile Chunks<T> chunks; //null until the view is first used
+
+        JavaList(MyList<T> list) {
+            this.list = list;
+        }
+
+        private Chunks<T> chunks() {
+            Chunks<T> chunks = this.chunks;
+            if (chunks == null) {
+                chunks = new Chunks<>(list);
+                this.chunks = chunks;
+            }
+            return chunks;
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("index = " + index);
+            Chunks<T> chunks = chunks();
+            int chunk = Arrays.binarySearch(chunks.starts, index);
+            if (chunk < 0) chunk = -chunk - 2; //insertion point - 1
+            return chunks.view(chunk).get((int) (index - chunks.starts[chunk]));
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(chunks().size(), Integer.MAX_VALUE);
+        }
+
+        @Override
+        public Object[] toArray() {
+            Chunks<T> chunks = chunks();
+            int size = size();
+            Object[] array = new Object[size];
+            for (int i = 0; i < chunks.count() && chunks.starts[i] < size; i++) {
+                Object[] chunkArray = chunks.view(i).toArray();
+                System.arraycopy(chunkArray, 0, array, (int) chunks.starts[i], (int) Math.min(chunkArray.length, size - chunks.starts[i]));
+            }
+            return array;
+        }
+
+        /**
+         * The spliterator reads all the elements, so it is only SIZED if the size of the view is not capped.
+         */
+        @Override
+        public Spliterator<T> spliterator() {
+            Chunks<T> chunks = chunks();
+            return new ChunkSpliterator<>(chunks, 0, chunks.count(), null, chunks.size() <= Integer.MAX_VALUE);
+        }
+    }
+
+    private static final class RandomAccessJavaList<T> extends JavaList<T> implements RandomAccess {
+        RandomAccessJavaList(MyList<T> list) {
+            super(list);
+        }
+    }
+
+    /**
+     * The chunks of a view, the index of the first element of each, and their views, created when first needed.
+     */
+    private static final class Chunks<T> {
+        private final List<AList<T>> chunks;
+        private final long[] starts; //starts[i] is the index of the first element of chunk i, the last is the size
+        private final AtomicReferenceArray<List<T>> views;
+
+        Chunks(MyList<T> list) {
+            this.chunks = list.chunkStream().collect(Collectors.toList());
+            this.starts = new long[chunks.size() + 1];
+            for (int i = 0; i < chunks.size(); i++) {
+                starts[i + 1] = starts[i] + chunks.get(i).size();
+            }
+            this.views = new AtomicReferenceArray<>(chunks.size());
+        }
+
+        int count() {
+            return chunks.size();
+        }
+
+        long size() {
+            return starts[chunks.size()];
+        }
+
+        List<T> view(int chunk) {
+            List<T> view = views.get(chunk);
+            if (view == null) {
+                view = chunks.get(chunk).asJavaList();
+                views.set(chunk, view);
+            }
+            return view;
+        }
+    }
+
+    /**
+     * Splits the range of chunks in halves. When only one chunk is left, the chunk's spliterator is split.
+     */
+    private static final class ChunkSpliterator<T> implements Spliterator<T> {
+        private final Chunks<T> chunks;
+        private int chunk;
+        private final int endChunk;
+        private Spliterator<T> current;
+        private final boolean sized;
+
+        ChunkSpliterator(Chunks<T> chunks, int chunk, int endChunk, Spliterator<T> current, boolean sized) {
+            this.chunks = chunks;
+            this.chunk = chunk;
+            this.endChunk = endChunk;
+            this.current = current;
+            this.sized = sized;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (true) {
+                if (current == null) {
+                    if (chunk >= endChunk) return false;
+                    current = chunks.view(chunk++).spliterator();
+                }
+                if (current.tryAdvance(action)) return true;
+                current = null;
+            }
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            if (current != null) {
+                current.forEachRemaining(action);
+                current = null;
+            }
+            while (chunk < endChunk) {
+                chunks.view(chunk++).spliterator().forEachRemaining(action);
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (endChunk - chunk >= 2) {
+                int middle = (chunk + endChunk) >>> 1;
+                Spliterator<T> prefix = new ChunkSpliterator<>(chunks, chunk, middle, current, sized);
+                chunk = middle;
+                current = null;
+                return prefix;
+            }
+            if (current == null && chunk < endChunk) {
+                current = chunks.view(chunk++).spliterator();
+            }
+            return current == null ? null : current.trySplit();
+        }
+
+        @Override
+        public long estimateSize() {
+            return chunks.starts[endChunk] - chunks.starts[chunk] + (current == null ? 0 : current.estimateSize());
+        }
+
+        @Override
+        public int characteristics() {
+            return sized ? ORDERED | SIZED | SUBSIZED | IMMUTABLE : ORDERED | IMMUTABLE;
+        }
+    }
+
+    /**
+     * Builds a MyList by adding elements to a chunk, until it is full.
+     * Lists that are big enough can also be added as whole chunks, see {@link #addAll(AList)}.
+     *
+     * @param <T> The element type.
+     */
+    static final class Builder<T> implements AList.Builder<T> {
+        private final int chunkSize;
+        private final List<AList<T>> chunks = new ArrayList<>();
+        private AnArrayList.Builder<T> pending;
+
+        Builder(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public Builder<T> add(T element) {
+            if (pending == null) {
+                pending = new AnArrayList.Builder<>();
+            }
+            pending.add(element);
+            if (pending.size() == chunkSize) {
+                flush();
+            }
+            return this;
+        }
+
+        /**
+         * Add all the elements of a list. If the list is a MyList or AnArrayList of at least half the chunk size,
+         * it is not copied, but added as a chunk (or chunks).
+         *
+         * @param list The elements to add.
+         * @return This builder.
+         */
+        Builder<T> addAll(AList<T> list) {
+            if (list.isEmpty()) return this;
+            if ((list instanceof MyList || list instanceof AnArrayList) && list.size() >= (chunkSize + 1) / 2) {
+                flush();
+                if (list instanceof MyList) {
+                    ((MyList<T>) list).chunks.foldLeft(chunks, (chunks, chunk) -> {
+                        chunks.add(chunk);
+                        return chunks;
+                    });
+                } else {
+                    chunks.add(list);
+                }
+                return this;
+            }
+            return list.foldLeft(this, Builder::add);
+        }
+
+        private void flush() {
+            if (pending != null) {
+                chunks.add(pending.build());
+                pending = null;
+            }
+        }
+
+        List<AList<T>> chunks() {
+            flush();
+            return chunks;
+        }
+
+        @Override
+        public AList<T> build() {
+            flush();
+            return ofChunks(chunks, chunkSize);
+        }
+    }
+
     public static <T> MyList<T> create(T head, AList<T> tail) {
         if (tail.isEmpty()) {
             AList<T> headChunk = AnArrayList.create(head, AList.empty());
@@ -106,10 +938,10 @@ public class MyList<T> implements AList<T> {
             if (tailList.chunks.head().size() >= tailList.chunkSize) {
                 AnArrayList<T> headChunk = AnArrayList.create(head, AList.empty());
                 AList<AList<T>> chunks = AnArrayList.create(headChunk, tailList.chunks);
-                return new MyList<>(chunks, tailList.chunkSize);
+                return new MyList<>(chunks, tailList.chunkSize, tailList.policy);
             }
             AnArrayList<T> headChunk = AnArrayList.create(head, tailList.chunks.head());
-            return new MyList<>(AnArrayList.create(headChunk, tailList.chunks.tail()), tailList.chunkSize);
+            return new MyList<>(AnArrayList.create(headChunk, tailList.chunks.tail()), tailList.chunkSize, tailList.policy);
         }
         MyList<T> result = create(head, AList.empty());
         while (!tail.isEmpty()) {
@@ -132,12 +964,31 @@ public class MyList<T> implements AList<T> {
         int end = chunkSize > elements.length ? elements.length : chunkSize;
         AList<AList<T>> chunks = AList.empty();
         while (start < elements.length) {
-            T[] chunkArray = Arrays.copyOfRange(elements, start, end);
-            chunks = AnArrayList.create(AnArrayList.of(chunkArray), chunks);
+            chunks = AnArrayList.create(AnArrayList.copyOf(elements, start, end, ExecutionPolicy.sequential()), chunks);
             start = end;
             end = start + chunkSize;
             if (end > elements.length) end = elements.length;
         }
         return new MyList<>(chunks.reverse(), chunkSize);
     }
+
+    /**
+     * Make a list of the array without copying it, with chunks that are views over ranges of the array.
+     * The caller hands over the array, it must not be changed afterwards, as the change would be visible in the list.
+     *
+     * @param chunkSize The number of elements in each chunk, the last one may be smaller.
+     * @param elements The elements, which may contain null.
+     * @param <T> The element type.
+     * @return A list using the array, the empty list if the array is empty.
+     * @see AnArrayList#wrap(Object[], int, int)
+     */
+    public static <T> AList<T> wrap(int chunkSize, T[] elements) {
+        if (chunkSize < 1) throw new IllegalArgumentException("chunkSize = " + chunkSize);
+        if (elements.length == 0) return AList.empty();
+        AnArrayList.Builder<AList<T>> chunks = new AnArrayList.Builder<>((elements.length - 1) / chunkSize + 1);
+        for (int start = 0; start < elements.length; start += chunkSize) {
+            chunks.add(AnArrayList.wrap(elements, start, start + Math.min(chunkSize, elements.length - start)));
+        }
+        return new MyList<>(chunks.build(), chunkSize);
+    }
 }
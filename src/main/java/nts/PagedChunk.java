@@ -0,0 +1,219 @@
+package nts;
+
+import java.lang.ref.WeakReference;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A chunk of a paged MyList. The elements are kept by the {@link ChunkStore}, which may evict them from memory, so
+ * every operation asks the store for them first.
+ * <br/>
+ * A paged chunk is a view of a range of a stored chunk, possibly reversed, so the tails and the reverse of a chunk
+ * are paged chunks of the same stored chunk, and don't keep its elements in memory.
+ *
+ * @param <T> The element type.
+ */
+final class PagedChunk<T> implements AList<T>, HasStats<T> {
+    private final ChunkStore store;
+    final long id;
+    private final long from; //inclusive, index in the stored chunk
+    private final long to; //exclusive
+    private final boolean reversed;
+    private volatile ChunkStats<T> stats; //computed when first needed
+    private volatile int hash; //0 until computed
+
+    PagedChunk(ChunkStore store, long id, long size) {
+        this(store, id, 0, size, false);
+    }
+
+    private PagedChunk(ChunkStore store, long id, long from, long to, boolean reversed) {
+        assert from < to;
+
+        this.store = store;
+        this.id = id;
+        this.from = from;
+        this.to = to;
+        this.reversed = reversed;
+    }
+
+    /**
+     * Only AnArrayList chunks (all the chunks read from a file) can be sliced, the views of other stored chunks are
+     * always the whole chunk (see {@link #tail()}).
+     */
+    private AList<T> load() {
+        AList<T> stored = store.load(this);
+        AList<T> range = from == 0 && to == stored.size() ? stored : ((AnArrayList<T>) stored).slice((int) from, (int) to);
+        return reversed ? range.reverse() : range;
+    }
+
+    void prefetch() {
+        store.prefetch(this);
+    }
+
+    @Override
+    public T head() {
+        return load().head();
+    }
+
+    /**
+     * @return A paged chunk of the same stored chunk if it is an AnArrayList, otherwise the tail of the loaded chunk,
+     * which is kept in memory for as long as the tail is used.
+     */
+    @Override
+    public AList<T> tail() {
+        if (to - from == 1) return AList.empty();
+        if (!(store.load(this) instanceof AnArrayList)) return load().tail();
+        return reversed ? new PagedChunk<>(store, id, from, to - 1, true) : new PagedChunk<>(store, id, from + 1, to, false);
+    }
+
+    @Override
+    public long size() {
+        return to - from;
+    }
+
+    @Override
+    public AList<T> filter(Predicate<? super T> predicate) {
+        return store.add(load().filter(predicate));
+    }
+
+    @Override
+    public <R> AList<R> map(Function<? super T, ? extends R> function) {
+        return store.add(load().map(function));
+    }
+
+    @Override
+    public AList<T> reverse() {
+        PagedChunk<T> reverse = new PagedChunk<>(store, id, from, to, !reversed);
+        reverse.stats = stats; //same elements
+        return reverse;
+    }
+
+    @Override
+    public <A> A foldLeft(A initial, BiFunction<? super A, ? super T, ? extends A> function) {
+        return load().foldLeft(initial, function);
+    }
+
+    @Override
+    public <A> A foldLeftWhile(A initial, BiFunction<? super A, ? super T, ? extends A> function,
+                               Predicate<? super A> condition) {
+        return load().foldLeftWhile(initial, function, condition);
+    }
+
+    @Override
+    public long indexOf(Predicate<? super T> predicate) {
+        return load().indexOf(predicate);
+    }
+
+    /**
+     * @return A view that asks the store for the elements on each access, so it doesn't keep the chunk in memory.
+     * Iterators and spliterators keep the chunk in memory while they are used.
+     */
+    @Override
+    public List<T> asJavaList() {
+        return new JavaList<>(this);
+    }
+
+    @Override
+    public AList.Factory factory() {
+        return AnArrayList::create;
+    }
+
+    @Override
+    public <R> AList.Builder<R> builder() {
+        return new AnArrayList.Builder<>();
+    }
+
+    /**
+     * Views of the same range of the same stored chunk are equal without loading them.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof PagedChunk) {
+            PagedChunk<?> chunk = (PagedChunk<?>) other;
+            if (chunk.store == store && chunk.id == id && chunk.from == from && chunk.to == to
+                    && chunk.reversed == reversed) return true;
+        }
+        return AList.contentEquals(this, other);
+    }
+
+    /**
+     * The summary stays in memory when the chunk is evicted, so chunks can be skipped without reading them again.
+     */
+    @Override
+    public ChunkStats<T> stats() {
+        ChunkStats<T> stats = this.stats;
+        if (stats == null) {
+            stats = ChunkStats.of(load());
+            this.stats = stats;
+        }
+        return stats;
+    }
+
+    /**
+     * @return The hash code of the elements, computed the first time it is needed and kept.
+     */
+    @Override
+    public int hashCode() {
+        int hash = this.hash;
+        if (hash == 0) {
+            hash = load().hashCode();
+            this.hash = hash;
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return asString();
+    }
+
+    /**
+     * The java.util.List view of the chunk. The elements last loaded are only weakly referenced, so reading elements
+     * one by one doesn't ask the store (and take its lock) for each of them, but doesn't keep the chunk in memory.
+     */
+    private static final class JavaList<T> extends AbstractList<T> implements RandomAccess {
+        private final PagedChunk<T> chunk;
+        private WeakReference<AList<T>> loaded = new WeakReference<>(null);
+
+        JavaList(PagedChunk<T> chunk) {
+            this.chunk = chunk;
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("index = " + index);
+            AList<T> stored = loaded.get();
+            if (stored == null) {
+                stored = chunk.store.load(chunk);
+                loaded = new WeakReference<>(stored);
+            }
+            return stored.asJavaList().get((int) (chunk.reversed ? chunk.to - 1 - index : chunk.from + index));
+        }
+
+        @Override
+        public int size() {
+            return (int) chunk.size();
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return chunk.load().asJavaList().iterator();
+        }
+
+        @Override
+        public Spliterator<T> spliterator() {
+            return chunk.load().asJavaList().spliterator();
+        }
+
+        @Override
+        public Object[] toArray() {
+            return chunk.load().asJavaList().toArray();
+        }
+    }
+}
@@ -2,9 +2,15 @@ import nts.*;
 import org.junit.Test;
 
 import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
 
 import static java.util.stream.IntStream.rangeClosed;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
@@ -55,6 +61,82 @@ public class AnArrayListTest {
         assertThat(list2.toString(), is("(5, 4, 2, 1)"));
     }
 
+    @Test
+    public void copyOnWrite() {
+        AnArrayList<Integer> list = (AnArrayList<Integer>) AnArrayList.of(1, 2, 3);
+        assertThat(list.set(1, 20).toString(), is("(1, 20, 3)"));
+        assertThat(list.reverse().set(0, 30).toString(), is("(30, 2, 1)"));
+        assertThat(list.insert(3, 4).toString(), is("(1, 2, 3, 4)"));
+        assertThat(list.reverse().insert(1, 4).toString(), is("(3, 4, 2, 1)"));
+        assertThat(list.remove(0).toString(), is("(2, 3)"));
+        assertThat(list.reverse().remove(0).toString(), is("(2, 1)"));
+        assertThat(list.toString(), is("(1, 2, 3)"));
+    }
+
+    @Test
+    public void wrap() {
+        String[] array = {"a", null, "c", "d"};
+        AList<String> list = AnArrayList.wrap(array);
+        assertThat(list.toString(), is("(a, null, c, d)"));
+        assertThat(list.reverse().tail().tail().head(), is(nullValue()));
+        assertThat(list.map(s -> s == null ? "-" : s).toString(), is("(a, -, c, d)"));
+        assertThat(list.asJavaList().toArray(), is(new Object[]{"a", null, "c", "d"}));
+
+        AList<String> range = AnArrayList.wrap(array, 1, 3);
+        assertThat(range.toString(), is("(null, c)"));
+        assertThat(AnArrayList.create("b", range).toString(), is("(b, null, c)"));
+        assertThat(AnArrayList.create("b", range.reverse()).toString(), is("(b, c, null)"));
+        assertThat(((AnArrayList<String>) range).insert(1, "x").toString(), is("(null, x, c)"));
+        assertThat(((AnArrayList<String>) range).set(1, "x").reverse().toString(), is("(x, null)"));
+        assertThat(array[0], is("a"));
+        assertTrue(AnArrayList.wrap(array, 2, 2).isEmpty());
+    }
+
+    @Test
+    public void asJavaList() {
+        List<Integer> view = AnArrayList.of(1, null, 3).reverse().asJavaList();
+        assertTrue(view instanceof RandomAccess);
+        assertThat(view.get(0), is(3));
+        assertThat(view.get(1), is(nullValue()));
+        assertThat(view.toArray(), is(new Object[]{3, null, 1}));
+        assertThat(AnArrayList.of(ELEMENTS).asJavaList().parallelStream().filter(k -> k % 2 == 0).count(), is((long) SIZE / 2));
+    }
+
+    @Test
+    public void parallelGrouping() {
+        AList<Integer> list = AnArrayList.parallelOf(ELEMENTS).reverse();
+        Map<Integer, AList<Integer>> groups = list.groupBy(k -> k % 3);
+        assertThat(groups.get(0).size(), is((long) SIZE / 3));
+        assertThat(groups.get(2).head(), is(SIZE));
+        assertThat(groups.get(1).head(), is(SIZE - 1));
+        assertThat(list.countBy(k -> k % 2 == 0).get(true), is((long) SIZE / 2));
+        assertThat(list.map(k -> k / 2).distinct().size(), is((long) SIZE / 2 + 1));
+        assertThat(list.map(k -> k / 2).distinct().head(), is(SIZE / 2));
+        Map<Boolean, AList<Integer>> parts = list.partition(k -> k > 10);
+        assertThat(parts.get(false).toString(), is("(10, 9, 8, 7, 6, 5, 4, 3, 2, 1)"));
+    }
+
+    @Test
+    public void parallelPrefixScan() {
+        AList<Long> sums = AnArrayList.parallelOf(ELEMENTS).reverse().map(k -> (long) k).prefixScan(0L, Long::sum);
+        assertThat(sums.size(), is(SIZE + 1L));
+        assertThat(sums.tail().head(), is((long) SIZE));
+        assertThat(sums.reverse().head(), is((long) SIZE * (SIZE + 1) / 2));
+    }
+
+    @Test
+    public void equalsAndHashCode() {
+        AnArrayList<Integer> list = (AnArrayList<Integer>) AnArrayList.parallelOf(ELEMENTS);
+        assertThat(list.hashCode(), is(Arrays.asList(ELEMENTS).hashCode()));
+        assertThat(list.reverse().hashCode(), is(list.reverse().asJavaList().hashCode()));
+        assertTrue(list.equals(list.withPolicy(ExecutionPolicy.sequential())));
+        assertTrue(list.tail().equals(list.tail()));
+        assertTrue(list.equals(AnArrayList.wrap(ELEMENTS)));
+        assertFalse(list.equals(list.reverse()));
+        assertFalse(list.equals(list.set(SIZE - 1, 0)));
+        assertTrue(list.reverse().reverse().equals(list));
+    }
+
     @Test(expected = AList.CreationFailed.class)
     public void testCreationFail() {
         AList<Byte> biggy = AnArrayList.of(new Byte[AnArrayList.MAX_SIZE]);
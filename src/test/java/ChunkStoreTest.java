@@ -0,0 +1,113 @@
+import nts.AList;
+import nts.ChunkStore;
+import nts.MyList;
+import org.junit.Test;
+
+import java.io.NotSerializableException;
+import java.io.UncheckedIOException;
+
+import static java.util.stream.IntStream.range;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ChunkStoreTest {
+
+    @Test
+    public void pagedList() {
+        Integer[] elements = range(0, 1000).boxed().toArray(Integer[]::new);
+        elements[5] = null;
+        try (ChunkStore store = new ChunkStore(250)) {
+            AList<Integer> paged = store.page((MyList<Integer>) MyList.chunkOf(100, elements));
+            assertTrue(store.residentSize() <= 250);
+            assertThat(paged.size(), is(1000L));
+            assertThat(paged.foldLeft(0L, (a, k) -> k == null ? a : a + k), is(499500L - 5));
+            assertTrue(store.residentSize() <= 250);
+
+            AList<Integer> even = paged.filter(k -> k != null && k % 2 == 0);
+            assertThat(even.size(), is(500L));
+            assertThat(even.reverse().head(), is(998));
+            AList<Integer> mapped = paged.map(k -> k == null ? -1 : k * 2);
+            assertThat(mapped.limit(7).toString(), is("(0, 2, 4, 6, 8, -1, 12)"));
+            assertThat(mapped.tail().head(), is(2));
+            assertThat(paged.reverse().head(), is(999));
+            assertThat(paged.asJavaList().get(500), is(500));
+            assertTrue(store.residentSize() <= 250);
+        }
+    }
+
+    @Test
+    public void javaListView() {
+        Integer[] elements = range(0, 1000).boxed().toArray(Integer[]::new);
+        try (ChunkStore store = new ChunkStore(250)) {
+            AList<Integer> paged = store.page((MyList<Integer>) MyList.chunkOf(100, elements));
+            long sum = 0;
+            for (Integer k : paged.asJavaList()) {
+                sum += k;
+            }
+            assertThat(sum, is(499500L));
+            assertThat(paged.asJavaList().get(999), is(999));
+            assertTrue(paged.equals(MyList.chunkOf(300, elements)));
+            assertTrue(store.residentSize() <= 250);
+        }
+    }
+
+    @Test
+    public void statsKeptWhenEvicted() {
+        Integer[] elements = range(0, 1000).boxed().toArray(Integer[]::new);
+        MyList<Integer> paged;
+        try (ChunkStore store = new ChunkStore(250)) {
+            paged = (MyList<Integer>) store.page((MyList<Integer>) MyList.chunkOf(100, elements));
+            assertThat(paged.countBetween(0, 999), is(1000L));
+        }
+        //the chunks can no longer be loaded, but their summaries are kept
+        assertThat(paged.countBetween(-10, 2000), is(1000L));
+        assertTrue(paged.filterBetween(2000, 3000).isEmpty());
+    }
+
+    @Test
+    public void viewsShareTheStoredChunk() {
+        Integer[] elements = range(0, 1000).boxed().toArray(Integer[]::new);
+        try (ChunkStore store = new ChunkStore(1000)) {
+            AList<Integer> paged = store.page((MyList<Integer>) MyList.chunkOf(100, elements));
+            AList<Integer> reversed = paged.reverse();
+            AList<Integer> tail = reversed.tail().tail();
+            assertThat(store.residentSize(), is(1000L));
+            assertThat(tail.head(), is(997));
+            assertThat(tail.reverse().limit(3).toString(), is("(0, 1, 2)"));
+            assertThat(tail.asJavaList().get(1), is(996));
+            assertTrue(paged.tail().equals(MyList.chunkOf(7, elements).tail()));
+        }
+    }
+
+    @Test
+    public void chunksThatCanNotBeWrittenAreDropped() {
+        Object[] elements = new Object[100];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = i % 10 == 0 ? new Object() : i;
+        }
+        try (ChunkStore store = new ChunkStore(10)) {
+            try {
+                store.page((MyList<Object>) MyList.chunkOf(10, elements));
+                fail();
+            } catch (UncheckedIOException e) {
+                assertTrue(e.getCause() instanceof NotSerializableException);
+            }
+            assertTrue(store.residentSize() <= 10);
+        }
+    }
+
+    @Test
+    public void mixedChunks() {
+        Integer[] elements = range(0, 1000).boxed().toArray(Integer[]::new);
+        try (ChunkStore store = new ChunkStore(250)) {
+            MyList<Integer> inMemory = (MyList<Integer>) MyList.chunkOf(100, elements);
+            MyList<Integer> paged = (MyList<Integer>) store.page(inMemory);
+            AList<Integer> mixed = inMemory.concat(paged).map(k -> k + 1).filter(k -> k % 2 == 0);
+            assertThat(mixed.size(), is(1000L));
+            assertThat(mixed.reverse().head(), is(1000));
+            assertTrue(store.residentSize() <= 250);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+import nts.AList;
+import nts.AnArrayList;
+import nts.ColumnarList;
+import nts.ColumnarList.Schema;
+import nts.GeneratedList;
+import nts.MyList;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnarListTest {
+    private static final int ID = 0;
+    private static final int PRICE = 1;
+    private static final int NAME = 2;
+
+    private static final Schema<Item> SCHEMA = Schema.<Item>of(row -> new Item(row.getInt(ID), row.getDouble(PRICE), row.get(NAME)))
+            .withInt(item -> item.id)
+            .withDouble(item -> item.price)
+            .withObject(item -> item.name);
+
+    @Test
+    public void columns() {
+        AList<Item> items = AnArrayList.of(new Item(1, 0.5, "a"), new Item(2, 2.5, "b"), new Item(3, 1.5, null));
+        ColumnarList<Item> list = (ColumnarList<Item>) ColumnarList.of(SCHEMA, items);
+
+        assertThat(list.toString(), is("(1:a, 2:b, 3:null)"));
+        assertThat(list.reverse().toString(), is("(3:null, 2:b, 1:a)"));
+        assertThat(list.tail().head().id, is(2));
+        assertThat(list.ints(ID).sum(), is(6));
+        assertThat(list.reverse().ints(ID).boxed().toArray(), is(new Object[]{3, 2, 1}));
+        assertThat(list.doubles(PRICE).max().getAsDouble(), is(2.5));
+        assertThat(list.filterDouble(PRICE, price -> price > 1).toString(), is("(2:b, 3:null)"));
+        assertThat(list.reverse().filterInt(ID, id -> id != 2).toString(), is("(3:null, 1:a)"));
+        assertThat(list.filterRows(row -> row.get(NAME) == null).head().id, is(3));
+        assertThat(list.foldRows(0.0, (total, row) -> total + row.getInt(ID) * row.getDouble(PRICE)), is(10.0));
+        assertThat(list.mapRows(row -> row.<String>get(NAME)).reverse().head(), is(nullValue()));
+        assertThat(list.filter(item -> item.id > 1).map(item -> item.price).toString(), is("(2.5, 1.5)"));
+        assertTrue(list.filterInt(ID, id -> id > 5).isEmpty());
+    }
+
+    @Test(expected = ClassCastException.class)
+    public void wrongFieldType() {
+        ((ColumnarList<Item>) ColumnarList.of(SCHEMA, AnArrayList.of(new Item(1, 1, "a"))))
+                .longs(ID);
+    }
+
+    @Test
+    public void chunks() {
+        AList<Item> items = GeneratedList.range(0, 10_000, 1).map(id -> new Item(id, id / 2.0, "item" + id));
+        AList<Item> list = ColumnarList.chunkOf(SCHEMA, 3000, items);
+        assertTrue(list instanceof MyList);
+        assertThat(list.size(), is(10_000L));
+        assertThat(list.reverse().head().name, is("item9999"));
+        assertThat(ColumnarList.chunks(list).count(), is(4L));
+        assertThat(ColumnarList.chunks(list).parallel().mapToLong(chunk -> chunk.ints(ID).asLongStream().sum()).sum(),
+                   is(49_995_000L));
+        AList<Item> filtered = list.filter(item -> item.id % 1000 == 0);
+        assertThat(ColumnarList.chunks(filtered).mapToInt(chunk -> chunk.ints(ID).sum()).sum(), is(45_000));
+        AList<Item> odd = list.filter(item -> item.id % 2 == 1);
+        assertThat(odd.size(), is(5_000L));
+        assertThat(ColumnarList.chunks(odd).mapToLong(chunk -> chunk.ints(ID).asLongStream().sum()).sum(),
+                   is(25_000_000L));
+    }
+
+    private static final class Item {
+        final int id;
+        final double price;
+        final String name;
+
+        Item(int id, double price, String name) {
+            this.id = id;
+            this.price = price;
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return id + ":" + name;
+        }
+    }
+}
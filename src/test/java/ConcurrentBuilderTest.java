@@ -0,0 +1,85 @@
+import nts.AList;
+import nts.ConcurrentBuilder;
+import nts.MyList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.stream.LongStream.rangeClosed;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentBuilderTest {
+    private final static int THREADS = 8;
+    private final static int PER_THREAD = 10_000;
+
+    @Test
+    public void concurrentAdd() throws InterruptedException {
+        ConcurrentBuilder<Integer> builder = new ConcurrentBuilder<>(1000);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t * PER_THREAD;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < PER_THREAD + 1; i++) {
+                    builder.add(offset + i);
+                }
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+
+        assertThat(builder.snapshot().size(), is((long) THREADS * PER_THREAD));
+        AList<Integer> list = builder.freeze();
+        assertThat(list, instanceOf(MyList.class));
+        assertThat(list.size(), is((long) THREADS * (PER_THREAD + 1)));
+        long expected = 0;
+        for (int t = 0; t < THREADS; t++) {
+            expected += rangeClosed(t * PER_THREAD, (t + 1) * PER_THREAD).sum();
+        }
+        assertThat(list.foldLeft(0L, (a, k) -> a + k), is(expected));
+    }
+
+    @Test
+    public void snapshotAndFreeze() {
+        ConcurrentBuilder<String> builder = new ConcurrentBuilder<>(2);
+        assertTrue(builder.snapshot().isEmpty());
+        builder.add("a").add("b").add(null);
+        assertThat(builder.snapshot().toString(), is("(a, b)"));
+        assertThat(builder.freeze().toString(), is("(a, b, null)"));
+    }
+
+    @Test
+    public void addRacingWithFreeze() throws InterruptedException {
+        ConcurrentBuilder<Integer> builder = new ConcurrentBuilder<>(100);
+        AtomicLong added = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            threads.add(new Thread(() -> {
+                try {
+                    while (true) {
+                        builder.add(1);
+                        added.incrementAndGet();
+                    }
+                } catch (IllegalStateException e) {
+                    //frozen
+                }
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        while (added.get() < PER_THREAD) Thread.yield();
+        AList<Integer> list = builder.freeze();
+        for (Thread thread : threads) thread.join();
+        assertThat(list.size(), is(added.get()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addAfterFreeze() {
+        ConcurrentBuilder<String> builder = new ConcurrentBuilder<>();
+        builder.freeze();
+        builder.add("a");
+    }
+}
@@ -0,0 +1,100 @@
+import nts.AList;
+import nts.AnArrayList;
+import nts.ExecutionPolicy;
+import nts.GeneratedList;
+import nts.MyList;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class ExecutionPolicyTest {
+
+    @Test
+    public void decisions() {
+        assertFalse(ExecutionPolicy.sequential().isParallel(1L << 30));
+        assertFalse(ExecutionPolicy.parallel().isParallel(10));
+        assertTrue(ExecutionPolicy.parallel().isParallel(1L << 20));
+        assertTrue(ExecutionPolicy.parallel().withMinSplitSize(1).isParallel(2));
+        assertFalse(ExecutionPolicy.adaptive().isParallel(100));
+        assertTrue(ExecutionPolicy.adaptive().isParallel(1L << 20));
+    }
+
+    @Test
+    public void smallListsRunInCallingThread() {
+        Thread caller = Thread.currentThread();
+        AList<Boolean> threads = AnArrayList.parallelOf(1, 2, 3, 4, 5).map(k -> Thread.currentThread() == caller);
+        assertTrue(threads.allMatch(same -> same));
+    }
+
+    @Test
+    public void adaptive() {
+        ExecutionPolicy policy = ExecutionPolicy.adaptive().withMinSplitSize(1);
+        AnArrayList<Integer> list = ((AnArrayList<Integer>) AnArrayList.of(new Integer[50])).withPolicy(policy);
+        assertFalse(policy.isParallel(50));
+        list.map(k -> sleep());
+        assertTrue(policy.isParallel(50));
+        assertThat(list.map(k -> 1).policy(), is(policy));
+    }
+
+    @Test
+    public void pool() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            Set<ForkJoinPool> pools = ConcurrentHashMap.newKeySet();
+            ExecutionPolicy policy = ExecutionPolicy.parallel().withPool(pool);
+            Integer[] elements = new Integer[100_000];
+            AList<Integer> list = ((AnArrayList<Integer>) AnArrayList.of(elements)).withPolicy(policy);
+            assertThat(list.map(k -> pools.add(poolOf(Thread.currentThread()))).size(), is(100_000L));
+            assertThat(pools.size(), is(1));
+            assertTrue(pools.contains(pool));
+
+            pools.clear();
+            AList<Integer> myList = ((MyList<Integer>) MyList.chunkOf(10_000, elements)).withPolicy(policy);
+            Map<Boolean, Long> counts = myList.countBy(k -> pools.add(poolOf(Thread.currentThread())));
+            assertThat(counts.values().stream().mapToLong(Long::longValue).sum(), is(100_000L));
+            assertTrue(pools.contains(pool));
+            assertThat(pools.size(), is(1));
+
+            pools.clear();
+            AList<Integer> myListOfChunks = ((MyList<Integer>) MyList.chunkOf(50_000, new Integer[200_000])).withPolicy(policy);
+            assertThat(myListOfChunks.map(k -> pools.add(poolOf(Thread.currentThread()))).size(), is(200_000L));
+            assertThat(myListOfChunks.filter(k -> pools.add(poolOf(Thread.currentThread())) || k == null).size(), is(200_000L));
+            assertThat(pools.size(), is(1));
+            assertTrue(pools.contains(pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void sequentialMyList() {
+        Thread caller = Thread.currentThread();
+        MyList<Integer> list = (MyList<Integer>) MyList.chunkOf(1000, GeneratedList.range(0, 100_000, 1)
+                                                                               .asJavaList().toArray(new Integer[0]));
+        AList<Integer> sequential = list.withPolicy(ExecutionPolicy.sequential());
+        assertTrue(sequential.anyMatch(k -> k == 99_999 && Thread.currentThread() == caller));
+        assertThat(sequential.tail().reverse().filter(k -> k < 10).size(), is(9L));
+    }
+
+    private static Integer sleep() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+
+    private static ForkJoinPool poolOf(Thread thread) {
+        return thread instanceof ForkJoinWorkerThread ? ((ForkJoinWorkerThread) thread).getPool() : null;
+    }
+}
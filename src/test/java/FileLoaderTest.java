@@ -0,0 +1,81 @@
+import nts.AList;
+import nts.FileLoader;
+import nts.MyList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+
+import static java.util.stream.IntStream.range;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class FileLoaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void lines() throws IOException {
+        String content = range(0, 10_000).mapToObj(Integer::toString).collect(Collectors.joining("\n"));
+        Path file = write(content);
+        FileLoader<Integer> loader = FileLoader.lines(FileLoader.string(StandardCharsets.UTF_8).andThen(Integer::valueOf));
+        AList<Integer> list = loader.withSegmentSize(1000).load(file);
+        assertThat(list.size(), is(10_000L));
+        assertThat(list.head(), is(0));
+        assertThat(list.reverse().head(), is(9999));
+        assertThat(list.foldLeft(0L, (a, k) -> a + k), is(49_995_000L));
+        assertThat(loader.load(file).indexOf(k -> k == 5000), is(5000L));
+    }
+
+    @Test
+    public void lineTerminators() throws IOException {
+        FileLoader<String> loader = FileLoader.lines(FileLoader.string(StandardCharsets.UTF_8)).withSegmentSize(3);
+        assertThat(loader.load(write("a\r\n\nbcdef\r\ng\n")).toString(), is("(a, , bcdef, g)"));
+        assertThat(loader.load(write("\u00e9\n\u00fc")).toString(), is("(\u00e9, \u00fc)"));
+        assertTrue(loader.load(write("")).isEmpty());
+    }
+
+    @Test
+    public void fixedLength() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4 * 1000);
+        range(0, 1000).forEach(buffer::putInt);
+        Path file = folder.newFile().toPath();
+        Files.write(file, buffer.array());
+
+        AList<Integer> list = FileLoader.fixedLength(4, ByteBuffer::getInt).withSegmentSize(30).load(file);
+        assertThat(list.size(), is(1000L));
+        assertThat(list.limit(3).toString(), is("(0, 1, 2)"));
+        assertThat(list.reverse().head(), is(999));
+    }
+
+    @Test
+    public void segmentsAreSplitIntoChunks() throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, new byte[MyList.DEFAULT_CHUNK_SIZE + 10]);
+
+        AList<Byte> list = FileLoader.fixedLength(1, ByteBuffer::get).load(file);
+        assertThat(list.size(), is(MyList.DEFAULT_CHUNK_SIZE + 10L));
+        assertThat(list.asJavaList().spliterator().trySplit().estimateSize(), is((long) MyList.DEFAULT_CHUNK_SIZE));
+        assertThat(list.reverse().head(), is((byte) 0));
+    }
+
+    @Test(expected = UncheckedIOException.class)
+    public void partialRecord() throws IOException {
+        FileLoader.fixedLength(4, ByteBuffer::getInt).load(write("12345"));
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,131 @@
+import nts.AList;
+import nts.GeneratedList;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class GeneratedListTest {
+
+    @Test
+    public void range() {
+        assertThat(GeneratedList.range(0, 5, 1).toString(), is("(0, 1, 2, 3, 4)"));
+        assertThat(GeneratedList.range(0, 10, 3).toString(), is("(0, 3, 6, 9)"));
+        assertThat(GeneratedList.range(5, 0, -2).toString(), is("(5, 3, 1)"));
+        assertThat(GeneratedList.range(10L, 12L, 1L).toString(), is("(10, 11)"));
+        assertTrue(GeneratedList.range(5, 5, 1).isEmpty());
+        assertTrue(GeneratedList.range(5, 0, 1).isEmpty());
+
+        AList<Integer> list = GeneratedList.range(0, 10, 1);
+        assertThat(list.size(), is(10L));
+        assertThat(list.tail().tail().head(), is(2));
+        assertThat(list.reverse().toString(), is("(9, 8, 7, 6, 5, 4, 3, 2, 1, 0)"));
+        assertThat(list.reverse().tail().limit(3).toString(), is("(8, 7, 6)"));
+        assertThat(((GeneratedList<Integer>) list.reverse()).slice(2, 4).toString(), is("(7, 6)"));
+        assertThat(list.asJavaList().get(7), is(7));
+        assertThat(list.indexOf(k -> k > 3), is(4L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroStep() {
+        GeneratedList.range(0, 5, 0);
+    }
+
+    @Test
+    public void wideRange() {
+        assertThat(GeneratedList.range(-10L, Long.MAX_VALUE, Long.MAX_VALUE / 2).toString(),
+                   is("(-10, " + (Long.MAX_VALUE / 2 - 10) + ", " + (Long.MAX_VALUE - 11) + ")"));
+        assertThat(GeneratedList.range(Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE).toString(),
+                   is("(" + Long.MAX_VALUE + ", -1)"));
+        assertThat(GeneratedList.range(Long.MIN_VALUE, Long.MAX_VALUE, 4L).size(), is(1L << 62));
+        assertThat(GeneratedList.range(Long.MIN_VALUE, Long.MAX_VALUE, 4L).reverse().head(), is(Long.MAX_VALUE - 3));
+        assertThat(GeneratedList.range(Integer.MIN_VALUE, Integer.MAX_VALUE, 1).size(), is((1L << 32) - 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyElements() {
+        GeneratedList.range(Long.MIN_VALUE, Long.MAX_VALUE, 1L);
+    }
+
+    @Test
+    public void lazy() {
+        AtomicInteger calls = new AtomicInteger();
+        AList<Long> list = GeneratedList.generate(1L << 40, index -> {
+            calls.incrementAndGet();
+            return index * 2;
+        });
+        assertThat(list.size(), is(1L << 40));
+        assertThat(list.reverse().tail().head(), is((1L << 41) - 4));
+        assertThat(list.limit(3).foldLeft(0L, Long::sum), is(6L));
+        assertThat(calls.get(), is(4));
+    }
+
+    @Test
+    public void memoize() {
+        AtomicInteger calls = new AtomicInteger();
+        GeneratedList<Integer> list = ((GeneratedList<Integer>) GeneratedList.generate(10_000, index -> {
+            calls.incrementAndGet();
+            return (int) index;
+        })).memoize();
+        assertThat(list.tail().head(), is(1));
+        int computed = calls.get();
+        assertThat(list.head(), is(0));
+        assertThat(list.limit(100).foldLeft(0, Integer::sum), is(4950));
+        assertThat(calls.get(), is(computed));
+    }
+
+    @Test
+    public void memoizeHugeList() {
+        GeneratedList<Long> list = ((GeneratedList<Long>) GeneratedList.generate(1L << 45, index -> index)).memoize();
+        assertThat(list.head(), is(0L));
+        assertThat(list.reverse().head(), is((1L << 45) - 1));
+        AList<Long> slice = ((GeneratedList<Long>) list.reverse().tail()).memoize();
+        assertThat(slice.head(), is((1L << 45) - 2));
+    }
+
+    @Test
+    public void iterate() {
+        AList<Long> powers = GeneratedList.iterate(1L, x -> x * 2, 63);
+        assertThat(powers.size(), is(63L));
+        assertThat(powers.limit(5).toString(), is("(1, 2, 4, 8, 16)"));
+        assertThat(powers.reverse().head(), is(1L << 62));
+
+        AList<Integer> big = GeneratedList.iterate(0, x -> x + 1, 100_000);
+        assertThat(big.reverse().head(), is(99_999));
+        assertThat(big.map(x -> x * 2).reverse().head(), is(199_998));
+    }
+
+    @Test
+    public void mapAndFilter() {
+        int size = 1_000_000;
+        AList<Integer> list = GeneratedList.range(0, size, 1);
+        AList<Integer> mapped = list.map(k -> k + 1);
+        assertThat(mapped.size(), is((long) size));
+        assertThat(mapped.head(), is(1));
+        assertThat(mapped.reverse().head(), is(size));
+        assertThat(mapped.foldLeft(0L, (a, k) -> a + k), is((long) size * (size + 1) / 2));
+
+        AList<Integer> even = list.reverse().filter(k -> k % 2 == 0);
+        assertThat(even.size(), is((long) size / 2));
+        assertThat(even.head(), is(size - 2));
+        assertThat(even.reverse().head(), is(0));
+
+        assertTrue(list.filter(k -> k < 0).isEmpty());
+        assertThat(GeneratedList.range(0, 10, 1).map(k -> k * k).toString(),
+                   is("(0, 1, 4, 9, 16, 25, 36, 49, 64, 81)"));
+    }
+
+    @Test
+    public void equalsBeyondJavaListSize() {
+        long size = (1L << 31) + 10;
+        AList<Long> list = GeneratedList.generate(size, index -> index);
+        AList<Long> other = GeneratedList.generate(size, index -> index == 5 ? -1 : index);
+        assertFalse(list.equals(other));
+        assertFalse(other.equals(list));
+        assertFalse(list.equals(GeneratedList.generate(size, index -> index).limit(size - 1)));
+    }
+}
@@ -0,0 +1,50 @@
+import nts.AList;
+import nts.AnArrayList;
+import nts.IncrementalView;
+import nts.MyList;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.stream.IntStream.range;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class IncrementalViewTest {
+
+    @Test
+    public void onlyNewChunksAreProcessed() {
+        AtomicInteger mapped = new AtomicInteger();
+        IncrementalView<Integer, AList<Integer>> doubled = IncrementalView.map(k -> {
+            mapped.incrementAndGet();
+            return k * 2;
+        });
+        MyList<Integer> list = (MyList<Integer>) MyList.chunkOf(3, range(0, 6).boxed().toArray(Integer[]::new));
+        assertThat(doubled.refresh(list).toString(), is("(0, 2, 4, 6, 8, 10)"));
+        assertThat(mapped.get(), is(6));
+
+        list = list.concat(MyList.chunkOf(3, range(6, 10).boxed().toArray(Integer[]::new)));
+        assertThat(doubled.refresh(list).toString(), is("(0, 2, 4, 6, 8, 10, 12, 14, 16, 18)"));
+        assertThat(mapped.get(), is(10));
+
+        assertThat(doubled.refresh(list).size(), is(10L));
+        assertThat(mapped.get(), is(10));
+        //with the chunk size of the source, lists of 2 are big enough to become chunks: 10 chunks, split in the middle
+        AList<Integer> pairs = doubled.refresh(list).flatMap(k -> AnArrayList.of(k, k));
+        assertThat(pairs.asJavaList().spliterator().trySplit().estimateSize(), is(10L));
+    }
+
+    @Test
+    public void filterAndFold() {
+        IncrementalView<Integer, AList<Integer>> even = IncrementalView.filter(k -> k % 2 == 0);
+        IncrementalView<Integer, Long> sum = IncrementalView.fold(0L, (a, k) -> a + k, Long::sum);
+        MyList<Integer> list = (MyList<Integer>) MyList.chunkOf(2, new Integer[]{1, 3, 4, 5});
+        assertThat(even.refresh(list).toString(), is("(4)"));
+        assertThat(sum.refresh(list), is(13L));
+
+        list = list.concat(MyList.of(6, 7));
+        assertThat(even.refresh(list).toString(), is("(4, 6)"));
+        assertThat(sum.refresh(list), is(26L));
+        assertThat(sum.refresh(AList.empty()), is(0L));
+    }
+}
@@ -5,6 +5,12 @@ import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameters;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -13,11 +19,9 @@ import static java.util.stream.IntStream.rangeClosed;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.*;
-import static org.junit.Assume.assumeFalse;
 
 /**
- * Run the same tests against all three AList implementations.
- * The largeList test fails with StackOverflowError for ABasicList, due to recursion being used.
+ * Run the same tests against all the AList implementations.
  */
 @SuppressWarnings("unchecked")
 @RunWith(Parameterized.class)
@@ -87,6 +91,8 @@ public class ListTest {
         AList<String> list = listOf("a", "bb", "c");
         AList<String> filtered = list.filter(x -> x.length() == 1);
         assertThat(filtered.asString(), is("(a, c)"));
+        assertThat(filtered.size(), is(2L));
+        assertThat(filtered.tail().size(), is(1L));
 
         assertTrue(listOf(1, 2, 3).filter((Object k) -> k.equals((short)0)).isEmpty());
     }
@@ -96,6 +102,8 @@ public class ListTest {
         AList<String> list = listOf("foo", "bar", "baz");
         AList<String> mapped = list.map(String::toUpperCase);
         assertThat(mapped.toString(), is("(FOO, BAR, BAZ)"));
+        assertThat(mapped.tail().size(), is(2L));
+        assertThat(create("QUX", mapped).size(), is(4L));
 
         list = listOf();
         assertTrue(list.map(String::toUpperCase).isEmpty());
@@ -105,6 +113,18 @@ public class ListTest {
         assertThat(hashed.head(), is("a".hashCode()));
     }
 
+    @Test
+    public void flatMap() {
+        AList<String> list = listOf("a", "bb", "", "c");
+        AList<Character> flattened = list.flatMap(x -> listOf(x.chars().mapToObj(c -> (char) c).toArray(Character[]::new)));
+        assertThat(flattened.toString(), is("(a, b, b, c)"));
+        assertThat(flattened.reverse().toString(), is("(c, b, b, a)"));
+        assertThat(list.reverse().flatMap(x -> listOf(x, x)).toString(), is("(c, c, , , bb, bb, a, a)"));
+
+        assertTrue(list.flatMap(x -> AList.empty()).isEmpty());
+        assertTrue(listOf().flatMap(x -> listOf(x)).isEmpty());
+    }
+
     @Test
     public void foldLeft() {
         AList<String> list = listOf("a", "bb", "ccc");
@@ -119,6 +139,100 @@ public class ListTest {
         assertThat(n, is(0));
     }
 
+    @Test
+    public void shortCircuit() {
+        AList<Integer> list = listOf(1, 2, 3, 4, 5);
+        List<Integer> visited = new ArrayList<>();
+        assertThat(list.find(k -> visited.add(k) && k > 2), is(Optional.of(3)));
+        assertThat(visited, is(asList(1, 2, 3)));
+        assertThat(list.find(k -> k > 5), is(Optional.empty()));
+        assertThat(list.reverse().find(k -> k < 3), is(Optional.of(2)));
+        assertThat(list.findAny(k -> k % 5 == 0), is(Optional.of(5)));
+        assertThat(list.indexOf(k -> k == 4), is(3L));
+        assertThat(list.indexOf(k -> k == 6), is(-1L));
+        assertTrue(list.anyMatch(k -> k == 1));
+        assertFalse(list.anyMatch(k -> k == 0));
+        assertTrue(list.allMatch(k -> k > 0));
+        assertFalse(list.allMatch(k -> k < 5));
+
+        assertThat(list.takeWhile(k -> k < 3).toString(), is("(1, 2)"));
+        assertThat(list.reverse().takeWhile(k -> k > 3).toString(), is("(5, 4)"));
+        assertTrue(list.takeWhile(k -> k > 3).isEmpty());
+        assertThat(list.dropWhile(k -> k < 3).toString(), is("(3, 4, 5)"));
+        assertThat(list.reverse().dropWhile(k -> k > 3).toString(), is("(3, 2, 1)"));
+        assertTrue(list.dropWhile(k -> k > 0).isEmpty());
+        assertThat(list.limit(2).toString(), is("(1, 2)"));
+        assertThat(list.limit(2).reverse().toString(), is("(2, 1)"));
+        assertThat(list.limit(7).toString(), is("(1, 2, 3, 4, 5)"));
+        assertTrue(list.limit(0).isEmpty());
+
+        int sum = list.foldLeftWhile(0, (a, k) -> a + k, a -> a < 5);
+        assertThat(sum, is(6));
+        AList<Object> empty = listOf();
+        assertThat(empty.foldLeftWhile(0, (a, k) -> a + 1, a -> true), is(0));
+        assertFalse(empty.find(k -> true).isPresent());
+        assertTrue(empty.takeWhile(k -> true).isEmpty());
+        assertTrue(empty.limit(1).isEmpty());
+    }
+
+    @Test
+    public void scanLeft() {
+        AList<Integer> list = listOf(1, 2, 3, 4);
+        assertThat(list.scanLeft(0, (a, k) -> a + k).toString(), is("(0, 1, 3, 6, 10)"));
+        assertThat(list.reverse().scanLeft("", (a, k) -> a + k).toString(), is("(, 4, 43, 432, 4321)"));
+        assertThat(list.prefixScan(10, Integer::sum).toString(), is("(10, 11, 13, 16, 20)"));
+        assertThat(list.scanLeft(0, (a, k) -> a + k).size(), is(5L));
+        assertThat(listOf().scanLeft("a", (a, k) -> a + k).toString(), is("(a)"));
+
+        Integer[] numbers = rangeClosed(1, 100000).boxed().toArray(Integer[]::new);
+        AList<Long> sums = listOf(numbers).map(k -> (long) k).prefixScan(0L, Long::sum);
+        assertThat(sums.reverse().head(), is(5000050000L));
+        assertThat(sums.limit(4).toString(), is("(0, 1, 3, 6)"));
+    }
+
+    @Test
+    public void grouping() {
+        AList<String> list = listOf("b", "a", "bb", null, "a", "c", "bb");
+        assertThat(list.distinct().toString(), is("(b, a, bb, null, c)"));
+        assertThat(list.reverse().distinct().toString(), is("(bb, c, a, null, b)"));
+
+        Map<Object, AList<String>> groups = list.filter(x -> x != null).groupBy(String::length);
+        assertThat(groups.keySet(), is(new LinkedHashSet<>(asList(1, 2))));
+        assertThat(groups.get(1).toString(), is("(b, a, a, c)"));
+        assertThat(groups.get(2).toString(), is("(bb, bb)"));
+
+        Map<String, Long> counts = list.countBy(x -> x);
+        assertThat(counts.get("a"), is(2L));
+        assertThat(counts.get(null), is(1L));
+        assertThat(counts.get("c"), is(1L));
+
+        Map<Boolean, AList<String>> parts = list.partition(x -> x != null && x.startsWith("b"));
+        assertThat(parts.get(true).toString(), is("(b, bb, bb)"));
+        assertThat(parts.get(false).toString(), is("(a, null, a, c)"));
+        assertTrue(listOf("a").partition(x -> true).get(false).isEmpty());
+        assertTrue(listOf().groupBy(x -> x).isEmpty());
+    }
+
+    @Test
+    public void asJavaList() {
+        List<String> view = listOf("a", null, "c").asJavaList();
+        assertThat(view, is(asList("a", null, "c")));
+        assertThat(view.get(2), is("c"));
+        assertThat(view.size(), is(3));
+        assertThat(view.toArray(), is(new Object[]{"a", null, "c"}));
+        assertThat(view.toArray(new String[0]), is(new String[]{"a", null, "c"}));
+        assertThat(listOf("a", "b", "c").reverse().asJavaList(), is(asList("c", "b", "a")));
+        assertThat(listOf().asJavaList().isEmpty(), is(true));
+
+        Integer[] numbers = rangeClosed(1, 1000).boxed().toArray(Integer[]::new);
+        assertThat(listOf(numbers).asJavaList().parallelStream().mapToInt(k -> k).sum(), is(500500));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void asJavaListIsReadOnly() {
+        listOf("a").asJavaList().set(0, "b");
+    }
+
     @Test
     public void empty() {
         AList<Object> list = listOf();
@@ -136,7 +250,6 @@ public class ListTest {
 
     @Test
     public void largeList() {
-        assumeFalse(listClass == ABasicList.class);
         int max = 200000;
         int evenCount = listOf(rangeClosed(1, max).boxed().toArray(Integer[]::new))
                               .reverse()
@@ -146,6 +259,39 @@ public class ListTest {
         assertThat(evenCount, is(max/2));
     }
 
+    @Test
+    public void builder() {
+        AList<String> list = listOf("a");
+        AList<String> built = list.<String>builder().add("x").add(null).add("z").build();
+        assertThat(built.toString(), is("(x, null, z)"));
+        assertThat(built.size(), is(3L));
+        assertThat(built.tail().size(), is(2L));
+        assertThat(built.getClass(), is((Object) list.getClass()));
+        assertTrue(list.builder().build().isEmpty());
+    }
+
+    @Test
+    public void equalsAndHashCode() {
+        AList<String> list = listOf("a", null, "c");
+        assertThat(list.hashCode(), is(asList("a", null, "c").hashCode()));
+        assertThat(list.tail().hashCode(), is(asList(null, "c").hashCode()));
+        assertTrue(list.equals(listOf("a", null, "c")));
+        assertTrue(list.equals(ALinkedList.of("a", null, "c")));
+        assertTrue(ABasicList.of("a", null, "c").equals(list));
+        assertTrue(list.equals(AnArrayList.of("c", null, "a").reverse()));
+        assertTrue(list.reverse().equals(MyList.of("c", null, "a")));
+        assertFalse(list.equals(listOf("a", null)));
+        assertFalse(list.equals(listOf("a", "b", "c")));
+        assertFalse(list.equals(asList("a", null, "c")));
+        assertTrue(list.tail().tail().tail().equals(AList.empty()));
+        assertThat(AList.empty().hashCode(), is(1));
+        assertThat(new ABasicList<>("x", list).hashCode(), is(asList("x", "a", null, "c").hashCode()));
+
+        Map<AList<String>, Integer> map = new HashMap<>();
+        map.put(list, 1);
+        assertThat(map.get(ABasicList.of("a", null, "c")), is(1));
+    }
+
     private <T> AList<T> listOf(T... items) {
         Function creator = o -> {
             try {
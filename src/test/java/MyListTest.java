@@ -1,13 +1,27 @@
 import nts.ABasicList;
 import nts.AList;
 import nts.AnArrayList;
+import nts.ChunkStats;
+import nts.ExecutionPolicy;
+import nts.GeneratedList;
 import nts.MyList;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
 import static java.util.stream.IntStream.range;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 public class MyListTest {
 
@@ -24,6 +38,38 @@ public class MyListTest {
         assertThat(myList.size(), is(5L));
     }
 
+    @Test
+    public void wrap() {
+        Integer[] elements = range(0, 10).boxed().toArray(Integer[]::new);
+        elements[4] = null;
+        AList<Integer> myList = MyList.wrap(3, elements);
+        assertThat(myList.toString(), is("(0, 1, 2, 3, null, 5, 6, 7, 8, 9)"));
+        assertThat(myList.reverse().toString(), is("(9, 8, 7, 6, 5, null, 3, 2, 1, 0)"));
+        assertThat(myList.filter(k -> k != null && k > 5).toString(), is("(6, 7, 8, 9)"));
+        assertThat(MyList.create(-1, myList).limit(3).toString(), is("(-1, 0, 1)"));
+        assertThat(myList.asJavaList().get(4), is(nullValue()));
+        assertThat(elements[0], is(0));
+    }
+
+    @Test
+    public void equalsAndHashCode() {
+        Integer[] elements = range(0, 100_000).boxed().toArray(Integer[]::new);
+        MyList<Integer> list = (MyList<Integer>) MyList.chunkOf(1000, elements);
+        assertThat(list.hashCode(), is(Arrays.asList(elements).hashCode()));
+        assertTrue(list.equals(MyList.wrap(1000, elements)));
+        assertTrue(list.equals(MyList.wrap(3000, elements)));
+        assertTrue(list.equals(AnArrayList.of(elements)));
+        assertTrue(AnArrayList.of(elements).equals(list));
+        assertTrue(list.equals(list.withPolicy(ExecutionPolicy.sequential())));
+        assertTrue(list.tail().equals(list.tail()));
+        assertThat(list.tail().hashCode(), is(Arrays.asList(elements).subList(1, elements.length).hashCode()));
+
+        MyList<Integer> changed = list.set(99_999, 0);
+        assertFalse(list.equals(changed));
+        assertFalse(list.hashCode() == changed.hashCode());
+        assertTrue(changed.equals(changed.set(99_999, 0)));
+    }
+
     @Test
     public void createFromAnArrayList() {
         AList<Object> tail = AnArrayList.of(new Object[MyList.DEFAULT_CHUNK_SIZE + 1]);
@@ -46,4 +92,161 @@ public class MyListTest {
         assertThat(list.tail().head(), is(nullValue()));
         assertThat(list.reverse().head(), is(nullValue()));
     }
+
+    @Test
+    public void flatMapSplicesChunks() {
+        Integer[] elements = range(0, 10).boxed().toArray(Integer[]::new);
+        AList<Integer> myList = MyList.chunkOf(4, elements);
+        AList<Integer> halves = myList.flatMap(k -> AnArrayList.of(k, -k));
+        assertThat(halves.size(), is(20L));
+        assertThat(halves.tail().tail().toString(), is("(1, -1, 2, -2, 3, -3, 4, -4, 5, -5, 6, -6, 7, -7, 8, -8, 9, -9)"));
+        //10 chunks of 2, split in the middle
+        assertThat(halves.asJavaList().spliterator().trySplit().estimateSize(), is(10L));
+
+        AList<Integer> small = myList.flatMap(k -> AnArrayList.of(-k));
+        assertThat(small.toString(), is("(0, -1, -2, -3, -4, -5, -6, -7, -8, -9)"));
+        //packed into chunks of 4, 4 and 2, so the first chunk is split off, not 5 spliced chunks of 1
+        assertThat(small.asJavaList().spliterator().trySplit().estimateSize(), is(4L));
+
+        AList<Integer> big = myList.flatMap(k -> k % 2 == 0 ? MyList.chunkOf(2, new Integer[]{k, k, k}) : ABasicList.of(k));
+        assertThat(big.toString(), is("(0, 0, 0, 1, 2, 2, 2, 3, 4, 4, 4, 5, 6, 6, 6, 7, 8, 8, 8, 9)"));
+        assertThat(big.reverse().head(), is(9));
+    }
+
+    @Test
+    public void shortCircuitAcrossChunks() {
+        Integer[] elements = range(0, 10).boxed().toArray(Integer[]::new);
+        AList<Integer> myList = MyList.chunkOf(3, elements);
+        assertThat(myList.takeWhile(k -> k < 7).toString(), is("(0, 1, 2, 3, 4, 5, 6)"));
+        assertThat(myList.dropWhile(k -> k < 7).toString(), is("(7, 8, 9)"));
+        assertThat(myList.dropWhile(k -> k < 4).reverse().toString(), is("(9, 8, 7, 6, 5, 4)"));
+        long[] tested = {0};
+        assertThat(myList.dropWhile(k -> tested[0]++ < 4).head(), is(4));
+        assertThat(tested[0], is(5L));
+        assertThat(myList.limit(5).toString(), is("(0, 1, 2, 3, 4)"));
+        assertThat(myList.indexOf(k -> k == 8), is(8L));
+        assertThat(myList.findAny(k -> k > 7).map(k -> k > 7), is(Optional.of(true)));
+        assertThat(myList.anyMatch(k -> k == 9), is(true));
+        assertThat(myList.allMatch(k -> k < 9), is(false));
+        assertThat(myList.foldLeftWhile(0, (a, k) -> a + k, a -> a < 10), is(10));
+    }
+
+    @Test
+    public void copyOnWrite() {
+        Integer[] elements = range(0, 10).boxed().toArray(Integer[]::new);
+        MyList<Integer> myList = (MyList<Integer>) MyList.chunkOf(3, elements);
+        assertThat(myList.set(4, 40).toString(), is("(0, 1, 2, 3, 40, 5, 6, 7, 8, 9)"));
+        assertThat(myList.reverse().set(0, null).toString(), is("(null, 8, 7, 6, 5, 4, 3, 2, 1, 0)"));
+        Map<Long, Integer> updates = new HashMap<>();
+        updates.put(0L, 10);
+        updates.put(2L, 12);
+        updates.put(9L, 19);
+        assertThat(myList.update(updates).toString(), is("(10, 1, 12, 3, 4, 5, 6, 7, 8, 19)"));
+        assertThat(myList.toString(), is("(0, 1, 2, 3, 4, 5, 6, 7, 8, 9)"));
+
+        MyList<Integer> inserted = myList.insert(4, -1).insert(0, -2).insert(12, -3);
+        assertThat(inserted.toString(), is("(-2, 0, 1, 2, 3, -1, 4, 5, 6, 7, 8, 9, -3)"));
+        assertThat(inserted.reverse().insert(1, 0).toString(), is("(-3, 0, 9, 8, 7, 6, 5, 4, -1, 3, 2, 1, 0, -2)"));
+
+        assertThat(myList.remove(0).toString(), is("(1, 2, 3, 4, 5, 6, 7, 8, 9)"));
+        assertThat(myList.remove(9).reverse().toString(), is("(8, 7, 6, 5, 4, 3, 2, 1, 0)"));
+        assertTrue(((MyList<Integer>) MyList.of(1)).remove(0).isEmpty());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void setOutOfBounds() {
+        ((MyList<Integer>) MyList.of(1, 2)).set(2, 0);
+    }
+
+    @Test
+    public void asJavaList() {
+        Integer[] elements = range(0, 10).boxed().toArray(Integer[]::new);
+        List<Integer> view = MyList.chunkOf(3, elements).reverse().asJavaList();
+        assertTrue(view instanceof RandomAccess);
+        assertThat(view.get(0), is(9));
+        assertThat(view.get(3), is(6));
+        assertThat(view.get(9), is(0));
+        assertThat(view.subList(2, 5), is(Arrays.asList(7, 6, 5)));
+        assertThat(view.toArray(), is(new Object[]{9, 8, 7, 6, 5, 4, 3, 2, 1, 0}));
+        assertThat(view.stream().collect(Collectors.toList()), is(view));
+        assertThat(view.parallelStream().map(k -> k * 2).collect(Collectors.toList()).get(9), is(0));
+    }
+
+    @Test
+    public void linkedChunksView() {
+        MyList<Integer> chunks = (MyList<Integer>) MyList.chunkOf(3, new Integer[]{0, 1, 2});
+        List<Integer> view = chunks.concat(ABasicList.of(3, 4)).asJavaList();
+        assertFalse(view instanceof RandomAccess);
+        assertThat(view.get(4), is(4));
+        assertThat(view, is(Arrays.asList(0, 1, 2, 3, 4)));
+
+        MyList<Long> big = chunks.map(k -> (long) k).concat(GeneratedList.generate(1L << 31, k -> k));
+        assertFalse(big.asJavaList().spliterator().hasCharacteristics(Spliterator.SIZED));
+        assertTrue(chunks.asJavaList().spliterator().hasCharacteristics(Spliterator.SIZED));
+    }
+
+    @Test
+    public void rangeFilters() {
+        Integer[] elements = range(0, 10).boxed().toArray(Integer[]::new);
+        elements[4] = null;
+        MyList<Integer> myList = (MyList<Integer>) MyList.chunkOf(3, elements);
+        assertThat(myList.filterBetween(2, 7).toString(), is("(2, 3, 5, 6, 7)"));
+        assertThat(myList.filterBetween(6, 8).toString(), is("(6, 7, 8)"));
+        assertThat(myList.reverse().filterBetween(0, 3).toString(), is("(3, 2, 1, 0)"));
+        assertTrue(myList.filterBetween(20, 30).isEmpty());
+        assertThat(myList.countBetween(0, 9), is(9L));
+        assertThat(myList.countBetween(4, 4), is(0L));
+        assertThat(myList.findBetween(4, 9), is(Optional.of(5)));
+        assertThat(myList.findBetween(-5, -1), is(Optional.empty()));
+
+        MyList<Integer> gaps = (MyList<Integer>) MyList.chunkOf(4, new Integer[]{0, 10, 20, 30});
+        assertThat(gaps.findBetween(11, 19), is(Optional.empty()));
+    }
+
+    @Test
+    public void chunkStats() {
+        ChunkStats<String> stats = ChunkStats.of(AnArrayList.of("b", null, "a", "c"));
+        assertThat(stats.min(), is("a"));
+        assertThat(stats.max(), is("c"));
+        assertThat(stats.count(), is(4L));
+        assertThat(stats.nullCount(), is(1L));
+
+        AnArrayList<String> list = (AnArrayList<String>) AnArrayList.of("b", "a", "c");
+        ChunkStats<String> listStats = list.stats();
+        assertTrue(list.reverse().stats() == listStats);
+        assertThat(((AnArrayList<String>) list.tail()).stats().min(), is("a"));
+        assertThat(((AnArrayList<String>) list.tail().tail()).stats().min(), is("c"));
+    }
+
+    @Test
+    public void generatedChunksAreNotSummarisedAhead() {
+        MyList<Long> chunk = (MyList<Long>) MyList.chunkOf(10, new Long[]{1L, 2L});
+        MyList<Long> list = chunk.concat(GeneratedList.generate(1L << 40, k -> k));
+        assertThat(list.findBetween(5L, 6L), is(Optional.of(5L)));
+    }
+
+    @Test
+    public void groupingAcrossChunks() {
+        Integer[] elements = range(0, 10).boxed().toArray(Integer[]::new);
+        AList<Integer> myList = MyList.chunkOf(3, elements);
+        Map<Boolean, AList<Integer>> parts = myList.partition(k -> k % 2 == 0);
+        assertThat(parts.get(true).toString(), is("(0, 2, 4, 6, 8)"));
+        assertThat(parts.get(false).reverse().toString(), is("(9, 7, 5, 3, 1)"));
+        assertThat(myList.groupBy(k -> k % 4).get(1).toString(), is("(1, 5, 9)"));
+        assertThat(myList.countBy(k -> k < 4).get(true), is(4L));
+        assertThat(myList.map(k -> k % 4).distinct().toString(), is("(0, 1, 2, 3)"));
+        AList<Integer> parallel = ((MyList<Integer>) myList).withPolicy(ExecutionPolicy.parallel().withMinSplitSize(1));
+        assertThat(parallel.map(k -> k % 4 == 3 ? null : 9 - k % 5).distinct().toString(), is("(9, 8, 7, null, 5, 6)"));
+    }
+
+    @Test
+    public void prefixScanAcrossChunks() {
+        Integer[] elements = range(1, 11).boxed().toArray(Integer[]::new);
+        AList<Integer> myList = MyList.chunkOf(3, elements);
+        String expected = "(0, 1, 3, 6, 10, 15, 21, 28, 36, 45, 55)";
+        assertThat(myList.scanLeft(0, (a, k) -> a + k).toString(), is(expected));
+        assertThat(myList.prefixScan(0, Integer::sum).toString(), is(expected));
+        assertThat(myList.reverse().prefixScan(0, Integer::sum).toString(), is("(0, 10, 19, 27, 34, 40, 45, 49, 52, 54, 55)"));
+        assertThat(myList.prefixScan(0, Integer::sum).size(), is(11L));
+    }
 }